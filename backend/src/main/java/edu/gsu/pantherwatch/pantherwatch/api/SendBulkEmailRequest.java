@@ -0,0 +1,30 @@
+package edu.gsu.pantherwatch.pantherwatch.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SendBulkEmailRequest {
+
+    @NotEmpty(message = "At least one target email is required")
+    @Size(max = 1000, message = "At most 1000 recipients per request")
+    private List<@NotBlank @Email(message = "Invalid email format") String> targetEmails;
+
+    @NotBlank(message = "Subject is required")
+    private String subject;
+
+    @NotBlank(message = "Message is required")
+    private String message;
+}
@@ -0,0 +1,21 @@
+package edu.gsu.pantherwatch.pantherwatch.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SendBulkEmailResponse {
+
+    private boolean success;
+    private String message;
+    private int sent;
+    private int failed;
+    private List<String> failedRecipients;
+}
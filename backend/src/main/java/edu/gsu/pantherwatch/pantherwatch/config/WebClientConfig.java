@@ -22,12 +22,6 @@ public class WebClientConfig {
 
     @Bean
     public WebClient webClient() {
-        ExchangeStrategies strategies = ExchangeStrategies.builder()
-                .codecs(configurer -> configurer
-                        .defaultCodecs()
-                        .maxInMemorySize(10 * 1024 * 1024))
-                .build();
-
         // GoSolar (GSU Banner) sits behind an F5 BIG-IP load balancer. Course search is a
         // two-step flow: declare the term (POST /term/search) to create server-side session
         // state on one backend node, then GET the results from that SAME node. The F5 pins a
@@ -46,10 +40,22 @@ public class WebClientConfig {
         // Fix: use a non-pooling connector so every request is a fresh connection. The F5 then
         // always issues the BIGipServer cookie on the declaration, and PantherWatchService
         // forwards both cookies to the search, keeping the two steps pinned to the same node.
-        // The extra TLS handshake per call is negligible for this low-volume workload and is the
-        // price of correctness.
-        HttpClient httpClient = HttpClient.newConnection()
-                .responseTimeout(Duration.ofSeconds(15));
+        //
+        // This client is the fallback path. Course searches normally run on a leased
+        // GoSolarSessionPool session instead, which owns a single keep-alive connection that
+        // was opened fresh for its declaration, so it is pinned to the same node its cookies
+        // name and a search costs one request without another handshake.
+        return goSolarClient(baseUrl, HttpClient.newConnection()
+                .responseTimeout(Duration.ofSeconds(15)));
+    }
+
+    /** A GoSolar WebClient with the shared codecs and AJAX headers over {@code httpClient}. */
+    public static WebClient goSolarClient(String baseUrl, HttpClient httpClient) {
+        ExchangeStrategies strategies = ExchangeStrategies.builder()
+                .codecs(configurer -> configurer
+                        .defaultCodecs()
+                        .maxInMemorySize(10 * 1024 * 1024))
+                .build();
 
         return WebClient.builder()
                 .baseUrl(baseUrl)
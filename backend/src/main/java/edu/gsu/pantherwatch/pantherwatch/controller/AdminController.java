@@ -1,14 +1,21 @@
 package edu.gsu.pantherwatch.pantherwatch.controller;
 
+import edu.gsu.pantherwatch.pantherwatch.api.SendBulkEmailRequest;
+import edu.gsu.pantherwatch.pantherwatch.api.SendBulkEmailResponse;
 import edu.gsu.pantherwatch.pantherwatch.api.SendCustomEmailRequest;
 import edu.gsu.pantherwatch.pantherwatch.api.SendCustomEmailResponse;
 import edu.gsu.pantherwatch.pantherwatch.api.UserSearchRequest;
 import edu.gsu.pantherwatch.pantherwatch.api.UserSearchResponse;
 import edu.gsu.pantherwatch.pantherwatch.model.User;
+import edu.gsu.pantherwatch.pantherwatch.scheduler.CourseWatcher;
 import edu.gsu.pantherwatch.pantherwatch.scheduler.GradeDistributionScraper;
+import edu.gsu.pantherwatch.pantherwatch.scheduler.NotificationDeliveryWorker;
 import edu.gsu.pantherwatch.pantherwatch.service.AdminService;
 import edu.gsu.pantherwatch.pantherwatch.service.EmailService;
 import edu.gsu.pantherwatch.pantherwatch.service.GradeDistributionService;
+import edu.gsu.pantherwatch.pantherwatch.service.OutboundExecutor;
+import edu.gsu.pantherwatch.pantherwatch.service.PantherWatchService;
+import edu.gsu.pantherwatch.pantherwatch.service.UpstreamLimiters;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -29,6 +36,11 @@ public class AdminController {
     private final EmailService emailService;
     private final GradeDistributionScraper gradeDistributionScraper;
     private final GradeDistributionService gradeDistributionService;
+    private final PantherWatchService pantherWatchService;
+    private final UpstreamLimiters upstreamLimiters;
+    private final OutboundExecutor outboundExecutor;
+    private final CourseWatcher courseWatcher;
+    private final NotificationDeliveryWorker notificationDeliveryWorker;
     
     @PostMapping("/users/search")
     public ResponseEntity<List<UserSearchResponse>> searchUsers(
@@ -109,6 +121,43 @@ public class AdminController {
         }
     }
     
+    @PostMapping("/email/send-bulk")
+    public ResponseEntity<SendBulkEmailResponse> sendBulkEmail(
+            HttpServletRequest request,
+            @Valid @RequestBody SendBulkEmailRequest emailRequest) {
+
+        try {
+            User currentUser = (User) request.getAttribute("currentUser");
+
+            if (!adminService.isAdmin(currentUser.getEmail())) {
+                log.warn("Non-admin user {} attempted to send bulk email", currentUser.getEmail());
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(SendBulkEmailResponse.builder()
+                                .success(false)
+                                .message("Unauthorized: User is not an admin")
+                                .failedRecipients(List.of())
+                                .build());
+            }
+
+            SendBulkEmailResponse response = adminService.sendBulkCustomEmail(emailRequest, currentUser.getEmail());
+
+            if (response.isSuccess()) {
+                return ResponseEntity.ok(response);
+            } else {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+            }
+
+        } catch (Exception e) {
+            log.error("Error sending bulk email", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(SendBulkEmailResponse.builder()
+                            .success(false)
+                            .message("Internal server error: " + e.getMessage())
+                            .failedRecipients(List.of())
+                            .build());
+        }
+    }
+
     @GetMapping("/check")
     public ResponseEntity<Boolean> checkAdminStatus(HttpServletRequest request) {
         
@@ -188,6 +237,77 @@ public class AdminController {
         }
     }
 
+    @GetMapping("/gosolar/status")
+    public ResponseEntity<java.util.Map<String, Object>> goSolarStatus(HttpServletRequest request) {
+        try {
+            User currentUser = (User) request.getAttribute("currentUser");
+
+            if (!adminService.isAdmin(currentUser.getEmail())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+
+            return ResponseEntity.ok(pantherWatchService.getStatus());
+
+        } catch (Exception e) {
+            log.error("Error getting GoSolar status", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/upstreams/status")
+    public ResponseEntity<java.util.Map<String, Object>> upstreamStatus(HttpServletRequest request) {
+        try {
+            User currentUser = (User) request.getAttribute("currentUser");
+
+            if (!adminService.isAdmin(currentUser.getEmail())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+
+            java.util.Map<String, Object> status = new java.util.LinkedHashMap<>();
+            status.put("executor", outboundExecutor.getStatus());
+            status.put("limiters", upstreamLimiters.getStatus());
+            return ResponseEntity.ok(status);
+
+        } catch (Exception e) {
+            log.error("Error getting upstream status", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/watcher/status")
+    public ResponseEntity<java.util.Map<String, Object>> watcherStatus(HttpServletRequest request) {
+        try {
+            User currentUser = (User) request.getAttribute("currentUser");
+
+            if (!adminService.isAdmin(currentUser.getEmail())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+
+            return ResponseEntity.ok(courseWatcher.getStatus());
+
+        } catch (Exception e) {
+            log.error("Error getting watcher status", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/notifications/status")
+    public ResponseEntity<java.util.Map<String, Object>> notificationStatus(HttpServletRequest request) {
+        try {
+            User currentUser = (User) request.getAttribute("currentUser");
+
+            if (!adminService.isAdmin(currentUser.getEmail())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+
+            return ResponseEntity.ok(notificationDeliveryWorker.getStatus());
+
+        } catch (Exception e) {
+            log.error("Error getting notification status", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @PostMapping("/emails/cleanup")
     public ResponseEntity<java.util.Map<String, Object>> cleanupEmailLogs(HttpServletRequest request) {
         try {
@@ -1,5 +1,7 @@
 package edu.gsu.pantherwatch.pantherwatch.controller;
 
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -13,13 +15,13 @@ import edu.gsu.pantherwatch.pantherwatch.service.SyllabusService;
 import lombok.RequiredArgsConstructor;
 import edu.gsu.pantherwatch.pantherwatch.api.GetSubjectRequest;
 import edu.gsu.pantherwatch.pantherwatch.api.GetSubjectResponse;
-import edu.gsu.pantherwatch.pantherwatch.api.GradeDistributionResponse;
 import edu.gsu.pantherwatch.pantherwatch.api.ProfessorRating;
 import edu.gsu.pantherwatch.pantherwatch.api.RetrieveCourseInfoRequest;
 import edu.gsu.pantherwatch.pantherwatch.api.RetrieveCourseInfoResponse;
 import edu.gsu.pantherwatch.pantherwatch.api.SyllabusInfo;
 import edu.gsu.pantherwatch.pantherwatch.api.Terms;
-import java.util.List;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("/api/courses")
@@ -32,20 +34,18 @@ public class PantherWatchController {
     private final SyllabusService syllabusService;
 
     @GetMapping("/search")
-    public RetrieveCourseInfoResponse retrieveCourseInfo(@ModelAttribute RetrieveCourseInfoRequest request) {
-        RetrieveCourseInfoResponse response = pantherWatchService.searchCourses(request);
-        pantherWatchService.resetRequestForm();
-        return response;
+    public Mono<RetrieveCourseInfoResponse> retrieveCourseInfo(@ModelAttribute RetrieveCourseInfoRequest request) {
+        return pantherWatchService.searchCoursesReactive(request);
     }
 
     @GetMapping("/terms")
-    public List<Terms> getTerms() {
-        return pantherWatchService.fetchAvailableTerms();
+    public Flux<Terms> getTerms() {
+        return pantherWatchService.fetchAvailableTermsReactive();
     }
 
     @GetMapping("/subjects")
-    public List<GetSubjectResponse> getSubjects(@ModelAttribute GetSubjectRequest request) {
-        return pantherWatchService.getSubjects(request);
+    public Flux<GetSubjectResponse> getSubjects(@ModelAttribute GetSubjectRequest request) {
+        return pantherWatchService.getSubjectsReactive(request);
     }
 
     /**
@@ -53,12 +53,15 @@ public class PantherWatchController {
      * When {@code instructor} is supplied, the response also resolves whether that
      * professor has taught the course and includes their specific distribution.
      */
-    @GetMapping("/grades")
-    public GradeDistributionResponse getGradeDistribution(
+    @GetMapping(value = "/grades", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getGradeDistribution(
             @RequestParam String subject,
             @RequestParam String courseNumber,
             @RequestParam(required = false) String instructor) {
-        return gradeDistributionService.getDistribution(subject, courseNumber, instructor);
+        // Serialized once per grade load; see GradeSnapshot.
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(gradeDistributionService.getDistributionJson(subject, courseNumber, instructor));
     }
 
     /**
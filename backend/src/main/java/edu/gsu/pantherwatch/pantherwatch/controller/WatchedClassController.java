@@ -14,16 +14,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 import jakarta.servlet.http.HttpServletRequest;
+import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeoutException;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 @RestController
@@ -31,22 +29,10 @@ import java.util.stream.Collectors;
 @Slf4j
 public class WatchedClassController {
 
-    private static final long FULL_DETAILS_OVERALL_TIMEOUT_SECONDS = 25;
-
-    // Dedicated bounded pool for /full-details fan-out. Using ForkJoinPool.commonPool()
-    // (the default for supplyAsync) is unsafe here because fetchGroupDetails performs
-    // blocking WebClient .block() calls and can starve the common pool under load.
-    private final ExecutorService fullDetailsExecutor = Executors.newFixedThreadPool(16, r -> {
-        Thread t = new Thread(r, "full-details-" + FULL_DETAILS_THREAD_COUNTER.incrementAndGet());
-        t.setDaemon(true);
-        return t;
-    });
-    private static final AtomicInteger FULL_DETAILS_THREAD_COUNTER = new AtomicInteger();
-
-    @PreDestroy
-    public void shutdownExecutor() {
-        fullDetailsExecutor.shutdownNow();
-    }
+    private static final Duration FULL_DETAILS_OVERALL_TIMEOUT = Duration.ofSeconds(25);
+    // Course groups searched concurrently per /full-details request. The searches are
+    // non-blocking, so this bounds upstream fan-out rather than threads.
+    private static final int FULL_DETAILS_CONCURRENCY = 16;
 
     @Autowired
     private WatchedClassService watchedClassService;
@@ -187,21 +173,17 @@ public class WatchedClassController {
     }
 
     @GetMapping("/full-details")
-    public ResponseEntity<Map<String, Object>> getWatchedClassesWithFullDetails(HttpServletRequest request) {
+    public Mono<ResponseEntity<Map<String, Object>>> getWatchedClassesWithFullDetails(HttpServletRequest request) {
         Map<String, Object> response = new HashMap<>();
         try {
             User user = (User) request.getAttribute("currentUser");
 
             List<WatchedClassResponse> watchedClasses = watchedClassService.getWatchedClasses(user);
-            if (watchedClasses == null) {
-                watchedClasses = Collections.emptyList();
-            }
-
-            if (watchedClasses.isEmpty()) {
+            if (watchedClasses == null || watchedClasses.isEmpty()) {
                 response.put("success", true);
                 response.put("data", Collections.emptyList());
                 response.put("count", 0);
-                return ResponseEntity.ok(response);
+                return Mono.just(ResponseEntity.ok(response));
             }
 
             Map<String, List<WatchedClassResponse>> groupedClasses = watchedClasses.stream()
@@ -209,121 +191,98 @@ public class WatchedClassController {
                     .collect(Collectors.groupingBy(wc ->
                             wc.getSubject() + "|" + wc.getCourseNumber() + "|" + wc.getTerm()));
 
-            List<CompletableFuture<Map<String, CourseData>>> futures = groupedClasses.entrySet().stream()
-                    .map(entry -> CompletableFuture.supplyAsync(
-                            () -> fetchGroupDetails(entry.getKey(), entry.getValue()),
-                            fullDetailsExecutor))
-                    .toList();
-
-            CompletableFuture<Void> all = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
-            try {
-                all.get(FULL_DETAILS_OVERALL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
-            } catch (TimeoutException te) {
-                log.warn("full-details overall timeout reached; returning partial data with placeholders");
-                cancelPending(futures);
-            } catch (InterruptedException ie) {
-                Thread.currentThread().interrupt();
-                log.warn("full-details interrupted; returning partial data");
-                cancelPending(futures);
-            } catch (ExecutionException ee) {
-                log.warn("full-details execution exception (continuing with available data): {}", ee.getMessage());
-            }
-
-            // Merge all per-group CRN -> CourseData maps
-            Map<String, CourseData> crnToDetail = new HashMap<>();
-            for (CompletableFuture<Map<String, CourseData>> f : futures) {
-                if (f.isDone() && !f.isCompletedExceptionally()) {
-                    try {
-                        Map<String, CourseData> partial = f.getNow(Collections.emptyMap());
-                        if (partial != null) {
-                            crnToDetail.putAll(partial);
+            // Groups merge in as they finish, so whatever arrived before the overall
+            // timeout is still served; the rest become placeholders.
+            Map<String, CourseData> crnToDetail = new ConcurrentHashMap<>();
+            return Flux.fromIterable(groupedClasses.entrySet())
+                    .flatMap(entry -> fetchGroupDetails(entry.getKey(), entry.getValue()), FULL_DETAILS_CONCURRENCY)
+                    .doOnNext(crnToDetail::putAll)
+                    .then()
+                    .timeout(FULL_DETAILS_OVERALL_TIMEOUT)
+                    .onErrorResume(TimeoutException.class, te -> {
+                        log.warn("full-details overall timeout reached; returning partial data with placeholders");
+                        return Mono.empty();
+                    })
+                    .then(Mono.fromSupplier(() -> {
+                        // CRITICAL: always return one entry per watched class, even if details lookup failed.
+                        // This eliminates the "tracked classes returns null" symptom — the user always sees their classes.
+                        List<CourseData> allCourseDetails = new ArrayList<>(watchedClasses.size());
+                        for (WatchedClassResponse wc : watchedClasses) {
+                            CourseData detail = crnToDetail.get(wc.getCrn());
+                            if (detail != null) {
+                                allCourseDetails.add(detail);
+                            } else {
+                                allCourseDetails.add(buildPlaceholder(wc));
+                            }
                         }
-                    } catch (Exception e) {
-                        log.debug("ignoring failed group future: {}", e.getMessage());
-                    }
-                }
-            }
-
-            // CRITICAL: always return one entry per watched class, even if details lookup failed.
-            // This eliminates the "tracked classes returns null" symptom — the user always sees their classes.
-            List<CourseData> allCourseDetails = new ArrayList<>(watchedClasses.size());
-            for (WatchedClassResponse wc : watchedClasses) {
-                CourseData detail = crnToDetail.get(wc.getCrn());
-                if (detail != null) {
-                    if (detail.getTerm() == null || detail.getTerm().isBlank()) {
-                        detail.setTerm(wc.getTerm());
-                    }
-                    allCourseDetails.add(detail);
-                } else {
-                    allCourseDetails.add(buildPlaceholder(wc));
-                }
-            }
 
-            response.put("success", true);
-            response.put("data", allCourseDetails);
-            response.put("count", allCourseDetails.size());
-            return ResponseEntity.ok(response);
+                        response.put("success", true);
+                        response.put("data", allCourseDetails);
+                        response.put("count", allCourseDetails.size());
+                        return ResponseEntity.ok(response);
+                    }))
+                    .onErrorResume(e -> Mono.just(fullDetailsFailure(e)));
 
         } catch (Exception e) {
-            log.error("getWatchedClassesWithFullDetails unexpected failure", e);
-            response.put("success", false);
-            response.put("message", "Failed to get watched classes with full details");
-            response.put("data", Collections.emptyList());
-            response.put("count", 0);
-            // Real server-side failure — surface a 5xx so monitoring/clients can react.
-            // Note: handled per-group failures inside the try block return 200 with placeholders;
-            // only an outer-level crash reaches this branch.
-            return ResponseEntity.status(500).body(response);
+            return Mono.just(fullDetailsFailure(e));
         }
     }
 
-    private void cancelPending(List<CompletableFuture<Map<String, CourseData>>> futures) {
-        for (CompletableFuture<Map<String, CourseData>> f : futures) {
-            if (!f.isDone()) {
-                f.cancel(true);
-            }
-        }
+    private ResponseEntity<Map<String, Object>> fullDetailsFailure(Throwable e) {
+        log.error("getWatchedClassesWithFullDetails unexpected failure", e);
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", "Failed to get watched classes with full details");
+        response.put("data", Collections.emptyList());
+        response.put("count", 0);
+        // Real server-side failure — surface a 5xx so monitoring/clients can react.
+        // Note: per-group failures return 200 with placeholders; only an outer-level
+        // crash reaches this branch.
+        return ResponseEntity.status(500).body(response);
     }
 
-    private Map<String, CourseData> fetchGroupDetails(String groupKey, List<WatchedClassResponse> classesForThisCourse) {
-        try {
-            String[] parts = groupKey.split("\\|", -1);
-            if (parts.length < 3) {
-                return Collections.emptyMap();
-            }
-            String subject = parts[0];
-            String courseNumber = parts[1];
-            String term = parts[2];
-
-            RetrieveCourseInfoRequest searchRequest = RetrieveCourseInfoRequest.builder()
-                    .txtSubject(subject)
-                    .txtCourseNumber(courseNumber)
-                    .txtTerm(term)
-                    .pageMaxSize(200)
-                    .build();
-
-            RetrieveCourseInfoResponse searchResponse = pantherWatchService.searchCourses(searchRequest);
-            if (searchResponse == null || searchResponse.getData() == null) {
-                log.warn("full-details: no data for group {} (will use placeholders)", groupKey);
-                return Collections.emptyMap();
-            }
+    private Mono<Map<String, CourseData>> fetchGroupDetails(String groupKey,
+                                                            List<WatchedClassResponse> classesForThisCourse) {
+        String[] parts = groupKey.split("\\|", -1);
+        if (parts.length < 3) {
+            return Mono.empty();
+        }
+        String subject = parts[0];
+        String courseNumber = parts[1];
+        String term = parts[2];
+
+        RetrieveCourseInfoRequest searchRequest = RetrieveCourseInfoRequest.builder()
+                .txtSubject(subject)
+                .txtCourseNumber(courseNumber)
+                .txtTerm(term)
+                .pageMaxSize(200)
+                .build();
+
+        return pantherWatchService.searchCoursesReactive(searchRequest)
+                .flatMap(searchResponse -> {
+                    if (searchResponse.getData() == null) {
+                        log.warn("full-details: no data for group {} (will use placeholders)", groupKey);
+                        return Mono.empty();
+                    }
 
-            Set<String> watchedCrns = classesForThisCourse.stream()
-                    .map(WatchedClassResponse::getCrn)
-                    .collect(Collectors.toSet());
+                    Set<String> watchedCrns = classesForThisCourse.stream()
+                            .map(WatchedClassResponse::getCrn)
+                            .collect(Collectors.toSet());
 
-            Map<String, CourseData> result = new HashMap<>();
-            for (CourseData course : searchResponse.getData()) {
-                if (course != null && watchedCrns.contains(course.getCourseReferenceNumber())) {
-                    course.setTerm(term);
-                    result.put(course.getCourseReferenceNumber(), course);
-                }
-            }
-            return result;
-        } catch (Exception e) {
-            log.warn("full-details group {} failed: {}", groupKey, e.getMessage());
-            return Collections.emptyMap();
-        }
+                    // Search results are shared cache snapshots (their term already filled in
+                    // when the search completed): read only, never modify.
+                    Map<String, CourseData> result = new HashMap<>();
+                    for (CourseData course : searchResponse.getData()) {
+                        if (course != null && watchedCrns.contains(course.getCourseReferenceNumber())) {
+                            result.put(course.getCourseReferenceNumber(), course);
+                        }
+                    }
+                    return Mono.just(result);
+                })
+                .onErrorResume(e -> {
+                    log.warn("full-details group {} failed: {}", groupKey, e.getMessage());
+                    return Mono.empty();
+                });
     }
 
     private CourseData buildPlaceholder(WatchedClassResponse wc) {
@@ -9,7 +9,8 @@ import lombok.Builder;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "email_logs")
+@Table(name = "email_logs",
+        indexes = @Index(name = "idx_email_logs_dedupe", columnList = "email, email_type, crn, term, sent_at"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -24,7 +25,7 @@ public class EmailLog {
     private String email;
 
     @Column(nullable = false)
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = EmailTypeConverter.class)
     private EmailType emailType;
 
     @Column(nullable = false)
@@ -33,9 +34,36 @@ public class EmailLog {
     @Column(length = 500)
     private String subject;
 
+    // Set on class-availability emails, for per-section dedupe. Older rows only
+    // carry the CRN inside the subject.
+    @Column(length = 20)
+    private String crn;
+
+    @Column(length = 20)
+    private String term;
+
     public enum EmailType {
         WELCOME,
         GOODBYE,
-        CLASS_AVAILABILITY
+        CLASS_AVAILABILITY,
+        ADMIN
+    }
+
+    /**
+     * Stores {@link EmailType} by name, like {@code @Enumerated(STRING)}, but without
+     * the CHECK Hibernate generates for enums: ddl-auto=update never widens it, so
+     * every new type would otherwise need a migration before it could be logged.
+     */
+    @Converter
+    static class EmailTypeConverter implements AttributeConverter<EmailType, String> {
+        @Override
+        public String convertToDatabaseColumn(EmailType type) {
+            return type == null ? null : type.name();
+        }
+
+        @Override
+        public EmailType convertToEntityAttribute(String value) {
+            return value == null ? null : EmailType.valueOf(value);
+        }
     }
-}
\ No newline at end of file
+}
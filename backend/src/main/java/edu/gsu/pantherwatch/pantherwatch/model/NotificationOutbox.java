@@ -0,0 +1,91 @@
+package edu.gsu.pantherwatch.pantherwatch.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+
+/**
+ * A notification waiting to be (or already) delivered. Rows are written in the
+ * same transaction that marks the watch as notified, so a notification is never
+ * lost to a crash between the two; delivery workers drain PENDING rows.
+ */
+@Entity
+@Table(name = "notification_outbox",
+        indexes = @Index(name = "idx_notification_outbox_due", columnList = "status, next_attempt_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Identifies one logical notification; enqueueing the same key again is a no-op. */
+    @Column(name = "idempotency_key", nullable = false, unique = true, length = 200)
+    private String idempotencyKey;
+
+    @Column(nullable = false, length = 40)
+    @Enumerated(EnumType.STRING)
+    private Kind kind;
+
+    /**
+     * Name of the {@code NotificationChannel} that delivers this row; null on rows
+     * queued before there was more than one channel, which are email.
+     */
+    @Column(length = 20)
+    private String channel;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    private String recipientName;
+
+    private String term;
+
+    private String crn;
+
+    private String subject;
+
+    private String courseNumber;
+
+    @Column(length = 500)
+    private String courseTitle;
+
+    @Column(nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    /** When a worker took the row; SENDING rows claimed long ago belonged to a worker that died. */
+    private LocalDateTime claimedAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt;
+
+    public enum Kind {
+        CLASS_AVAILABILITY
+    }
+
+    public enum Status {
+        PENDING,
+        SENDING,
+        SENT,
+        FAILED
+    }
+}
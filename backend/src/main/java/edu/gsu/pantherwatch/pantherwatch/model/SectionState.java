@@ -0,0 +1,55 @@
+package edu.gsu.pantherwatch.pantherwatch.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Seats and waitlist of a watched section as of its last check. The watcher
+ * compares each check against this to find the sections that actually changed.
+ */
+@Entity
+@Table(name = "section_state")
+@IdClass(SectionState.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SectionState {
+
+    @Id
+    @Column(nullable = false)
+    private String term;
+
+    @Id
+    @Column(nullable = false)
+    private String crn;
+
+    @Column(nullable = false)
+    private int seatsAvailable;
+
+    @Column(nullable = false)
+    private int waitCount;
+
+    @Column(nullable = false)
+    private int enrollment;
+
+    @Column(nullable = false)
+    private LocalDateTime lastSeenAt;
+
+    @Column(nullable = false)
+    private LocalDateTime lastChangedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String term;
+        private String crn;
+    }
+}
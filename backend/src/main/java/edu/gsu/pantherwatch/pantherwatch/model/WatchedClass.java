@@ -8,7 +8,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "watched_classes")
+@Table(name = "watched_classes", indexes = @Index(name = "idx_watched_classes_term_crn", columnList = "term, crn"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -40,6 +40,11 @@ public class WatchedClass {
     @Column(name = "notified_at")
     private LocalDateTime notifiedAt;
 
+    // Bumped each time the watch is re-armed, so it names the current opening:
+    // every check that sees the same opening builds the same idempotency key.
+    @Column(name = "notify_generation", nullable = false, columnDefinition = "integer default 0")
+    private int notifyGeneration;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
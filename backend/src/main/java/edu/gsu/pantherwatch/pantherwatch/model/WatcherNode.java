@@ -0,0 +1,33 @@
+package edu.gsu.pantherwatch.pantherwatch.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.Instant;
+
+/**
+ * A backend replica taking part in course watching, kept alive by its heartbeat.
+ * Timestamps are written with the database clock so replicas never compare their
+ * own clocks.
+ */
+@Entity
+@Table(name = "watcher_nodes")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WatcherNode {
+
+    @Id
+    @Column(name = "node_id", length = 200)
+    private String nodeId;
+
+    @Column(name = "heartbeat_at", nullable = false)
+    private Instant heartbeatAt;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+}
@@ -0,0 +1,32 @@
+package edu.gsu.pantherwatch.pantherwatch.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.Instant;
+
+/**
+ * One shard of the watched course groups and the replica that holds it. A lease
+ * past {@code leaseUntil} is free to be claimed by another replica.
+ */
+@Entity
+@Table(name = "watcher_shard_leases")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WatcherShardLease {
+
+    @Id
+    @Column(name = "shard_id")
+    private Integer shardId;
+
+    @Column(name = "owner_node_id", length = 200)
+    private String ownerNodeId;
+
+    @Column(name = "lease_until")
+    private Instant leaseUntil;
+}
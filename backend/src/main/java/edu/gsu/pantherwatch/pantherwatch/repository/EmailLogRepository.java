@@ -9,6 +9,8 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -21,14 +23,24 @@ public interface EmailLogRepository extends JpaRepository<EmailLog, Long> {
             @Param("cutoffDate") LocalDateTime cutoffDate
     );
 
-    @Query("SELECT e FROM EmailLog e WHERE e.email = :email AND e.emailType = :emailType AND e.subject LIKE :subjectLike AND e.sentAt > :cutoffDate ORDER BY e.sentAt DESC")
-    Optional<EmailLog> findRecentEmailByTypeAndEmailAndSubject(
-            @Param("email") String email,
+    /** Recent emails of one type to any of {@code emails}, which must not be empty. */
+    @Query("SELECT e FROM EmailLog e WHERE e.email IN :emails AND e.emailType = :emailType AND e.sentAt > :cutoffDate")
+    List<EmailLog> findRecentByTypeAndEmailIn(
+            @Param("emails") Collection<String> emails,
+            @Param("emailType") EmailLog.EmailType emailType,
+            @Param("cutoffDate") LocalDateTime cutoffDate
+    );
+
+    @Query("SELECT e FROM EmailLog e WHERE e.emailType = :emailType AND e.sentAt > :cutoffDate")
+    List<EmailLog> findRecentByType(
             @Param("emailType") EmailLog.EmailType emailType,
-            @Param("subjectLike") String subjectLike,
             @Param("cutoffDate") LocalDateTime cutoffDate
     );
 
+    /** Send times since {@code cutoffDate}, one per email: a digest logs a row per section with a shared sentAt. */
+    @Query("SELECT e.sentAt FROM EmailLog e WHERE e.sentAt > :cutoffDate GROUP BY e.email, e.sentAt")
+    List<LocalDateTime> findSentAtSince(@Param("cutoffDate") LocalDateTime cutoffDate);
+
     @Query("SELECT COUNT(e) FROM EmailLog e WHERE e.sentAt > :cutoffDate")
     long countEmailsSentSince(@Param("cutoffDate") LocalDateTime cutoffDate);
 
@@ -0,0 +1,129 @@
+package edu.gsu.pantherwatch.pantherwatch.repository;
+
+import edu.gsu.pantherwatch.pantherwatch.model.NotificationOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    /**
+     * Appends class-availability notifications for {@code channel} in one statement;
+     * the arrays are parallel, one element per notification. Keys already present
+     * are skipped.
+     * They become due at {@code dueAt}, or with the recipient's earliest
+     * not-yet-attempted notification still waiting to go out, so both land in the
+     * same digest (never behind one that is backing off after a failure).
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO notification_outbox (idempotency_key, kind, channel, recipient, recipient_name, "
+            + "term, crn, subject, course_number, course_title, status, attempts, next_attempt_at, created_at) "
+            + "SELECT n.key, 'CLASS_AVAILABILITY', :channel, n.recipient, n.name, n.term, n.crn, n.subject, "
+            + "n.course_number, n.title, 'PENDING', 0, "
+            + "COALESCE((SELECT MIN(o.next_attempt_at) FROM notification_outbox o WHERE o.status = 'PENDING' "
+            + "AND o.attempts = 0 AND o.next_attempt_at > :now AND o.recipient = n.recipient "
+            + "AND COALESCE(o.channel, 'email') = :channel), :dueAt), :now "
+            + "FROM unnest(CAST(:keys AS text[]), CAST(:recipients AS text[]), CAST(:names AS text[]), "
+            + "CAST(:terms AS text[]), CAST(:crns AS text[]), CAST(:subjects AS text[]), "
+            + "CAST(:courseNumbers AS text[]), CAST(:titles AS text[])) "
+            + "AS n(key, recipient, name, term, crn, subject, course_number, title) "
+            + "ON CONFLICT (idempotency_key) DO NOTHING", nativeQuery = true)
+    int enqueueClassAvailability(@Param("channel") String channel,
+                                 @Param("keys") String[] keys,
+                                 @Param("recipients") String[] recipients,
+                                 @Param("names") String[] names,
+                                 @Param("terms") String[] terms,
+                                 @Param("crns") String[] crns,
+                                 @Param("subjects") String[] subjects,
+                                 @Param("courseNumbers") String[] courseNumbers,
+                                 @Param("titles") String[] titles,
+                                 @Param("now") LocalDateTime now,
+                                 @Param("dueAt") LocalDateTime dueAt);
+
+    /**
+     * Locks up to {@code limit} due PENDING rows of {@code channel}, skipping rows
+     * another worker or replica has locked. Only meaningful inside a transaction.
+     * Ties are broken by id, so rows reclaimed together come back in the same
+     * order, and batch up as they did the first time.
+     */
+    @Query(value = "SELECT id FROM notification_outbox WHERE status = 'PENDING' AND next_attempt_at <= :now "
+            + "AND COALESCE(channel, 'email') = :channel "
+            + "ORDER BY next_attempt_at, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockDue(@Param("channel") String channel, @Param("now") LocalDateTime now,
+                       @Param("limit") int limit);
+
+    /**
+     * {@link #lockDue}, restricted to the rows of the {@code recipients} recipients
+     * whose oldest due row is oldest, so a small send quota claims only what it can
+     * send and the rest keep their place in the queue.
+     */
+    @Query(value = "SELECT id FROM notification_outbox WHERE status = 'PENDING' AND next_attempt_at <= :now "
+            + "AND COALESCE(channel, 'email') = :channel "
+            + "AND LOWER(recipient) IN (SELECT LOWER(recipient) FROM notification_outbox "
+            + "WHERE status = 'PENDING' AND next_attempt_at <= :now AND COALESCE(channel, 'email') = :channel "
+            + "GROUP BY LOWER(recipient) ORDER BY MIN(next_attempt_at) LIMIT :recipients) "
+            + "ORDER BY next_attempt_at, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockDueForRecipients(@Param("channel") String channel, @Param("now") LocalDateTime now,
+                                    @Param("limit") int limit, @Param("recipients") int recipients);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE NotificationOutbox n SET n.status = :status, n.claimedAt = :now, n.attempts = n.attempts + 1 "
+            + "WHERE n.id IN :ids")
+    int markClaimed(@Param("ids") Collection<Long> ids,
+                    @Param("status") NotificationOutbox.Status status,
+                    @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationOutbox n SET n.status = :status, n.sentAt = :now, n.lastError = NULL "
+            + "WHERE n.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids,
+                 @Param("status") NotificationOutbox.Status status,
+                 @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationOutbox n SET n.status = :status, n.nextAttemptAt = :nextAttemptAt, "
+            + "n.lastError = :error WHERE n.id = :id")
+    int reschedule(@Param("id") Long id,
+                   @Param("status") NotificationOutbox.Status status,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                   @Param("error") String error);
+
+    /** Puts rows back without counting the attempt, e.g. when the email quota held them back. */
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationOutbox n SET n.status = :status, n.nextAttemptAt = :nextAttemptAt, "
+            + "n.attempts = n.attempts - 1, n.lastError = :reason WHERE n.id IN :ids")
+    int defer(@Param("ids") Collection<Long> ids,
+              @Param("status") NotificationOutbox.Status status,
+              @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+              @Param("reason") String reason);
+
+    /** Hands rows claimed before {@code cutoff} and never finished back to the queue. */
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationOutbox n SET n.status = :pending, n.nextAttemptAt = :now "
+            + "WHERE n.status = :sending AND n.claimedAt < :cutoff")
+    int reclaimStale(@Param("pending") NotificationOutbox.Status pending,
+                     @Param("sending") NotificationOutbox.Status sending,
+                     @Param("cutoff") LocalDateTime cutoff,
+                     @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM NotificationOutbox n WHERE n.status IN :statuses AND n.createdAt < :cutoff")
+    int deleteFinishedBefore(@Param("statuses") Collection<NotificationOutbox.Status> statuses,
+                             @Param("cutoff") LocalDateTime cutoff);
+
+    long countByStatus(NotificationOutbox.Status status);
+}
@@ -0,0 +1,50 @@
+package edu.gsu.pantherwatch.pantherwatch.repository;
+
+import edu.gsu.pantherwatch.pantherwatch.model.SectionState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SectionStateRepository extends JpaRepository<SectionState, SectionState.Key> {
+
+    List<SectionState> findByTermAndCrnIn(String term, Collection<String> crns);
+
+    /**
+     * Writes the state of many sections of one term in a single statement. The
+     * arrays are parallel (one element per section). {@code lastChangedAt} only
+     * moves when seats, waitlist or enrollment differ from the stored row.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO section_state "
+            + "(term, crn, seats_available, wait_count, enrollment, last_seen_at, last_changed_at) "
+            + "SELECT :term, s.crn, s.seats, s.waits, s.enrollment, :now, :now "
+            + "FROM unnest(CAST(:crns AS text[]), CAST(:seats AS int[]), CAST(:waits AS int[]), "
+            + "CAST(:enrollments AS int[])) AS s(crn, seats, waits, enrollment) "
+            + "ON CONFLICT (term, crn) DO UPDATE SET "
+            + "seats_available = EXCLUDED.seats_available, wait_count = EXCLUDED.wait_count, "
+            + "enrollment = EXCLUDED.enrollment, last_seen_at = EXCLUDED.last_seen_at, "
+            + "last_changed_at = CASE WHEN (section_state.seats_available, section_state.wait_count, "
+            + "section_state.enrollment) IS DISTINCT FROM "
+            + "(EXCLUDED.seats_available, EXCLUDED.wait_count, EXCLUDED.enrollment) "
+            + "THEN EXCLUDED.last_changed_at ELSE section_state.last_changed_at END",
+            nativeQuery = true)
+    int upsertAll(@Param("term") String term,
+                  @Param("crns") String[] crns,
+                  @Param("seats") Integer[] seats,
+                  @Param("waits") Integer[] waits,
+                  @Param("enrollments") Integer[] enrollments,
+                  @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM SectionState s WHERE s.term IN :terms")
+    int deleteByTermIn(@Param("terms") List<String> terms);
+}
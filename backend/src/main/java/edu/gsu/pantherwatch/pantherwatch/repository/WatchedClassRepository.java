@@ -7,7 +7,10 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,13 +29,60 @@ public interface WatchedClassRepository extends JpaRepository<WatchedClass, Long
     
     long countByUser(User user);
 
+    /** One row per watched term|subject|courseNumber, for the watch scheduler's roster. */
+    @Query("SELECT w.term AS term, w.subject AS subject, w.courseNumber AS courseNumber, COUNT(w) AS watchers "
+            + "FROM WatchedClass w GROUP BY w.term, w.subject, w.courseNumber")
+    List<CourseGroupSummary> findCourseGroups();
+
+    /** The distinct CRNs watched within one course, for a watch check. */
+    @Query("SELECT DISTINCT w.crn FROM WatchedClass w "
+            + "WHERE w.term = :term AND w.subject = :subject AND w.courseNumber = :courseNumber")
+    List<String> findWatchedCrns(@Param("term") String term,
+                                 @Param("subject") String subject,
+                                 @Param("courseNumber") String courseNumber);
+
+    /**
+     * Watch entries of open sections that have not been emailed about this opening,
+     * with their users pre-fetched. The fetch join matters: the watcher reads user
+     * email/name on async threads where no Hibernate session is open (OSIV is
+     * disabled). {@code crns} must not be empty.
+     */
+    @Query("SELECT w FROM WatchedClass w JOIN FETCH w.user "
+            + "WHERE w.term = :term AND w.crn IN :crns AND w.notifiedAt IS NULL")
+    List<WatchedClass> findUnnotifiedWithUser(@Param("term") String term, @Param("crns") Collection<String> crns);
+
     /**
-     * All watch entries with their users pre-fetched, for the watch cycle.
-     * The fetch join matters: the watcher reads user email/name on async
-     * threads where no Hibernate session is open (OSIV is disabled).
+     * Re-arms every watch of {@code crns} that was emailed about an opening, in one
+     * statement, moving it to its next notify generation. {@code crns} must not be
+     * empty. Bulk updates skip {@code @PreUpdate}, so {@code updatedAt} is set here.
      */
-    @Query("SELECT w FROM WatchedClass w JOIN FETCH w.user")
-    List<WatchedClass> findAllWithUser();
+    @Modifying
+    @Transactional
+    @Query("UPDATE WatchedClass w SET w.notifiedAt = NULL, w.notifyGeneration = w.notifyGeneration + 1, "
+            + "w.updatedAt = :now WHERE w.term = :term AND w.crn IN :crns AND w.notifiedAt IS NOT NULL")
+    int rearm(@Param("term") String term, @Param("crns") Collection<String> crns, @Param("now") LocalDateTime now);
+
+    /**
+     * Marks those of the given watches not yet emailed as emailed, and returns their
+     * ids; {@code ids} must not be empty. A watch another check stamped first is
+     * left alone and not returned, so only one check queues its notification.
+     *
+     * Deliberately not {@code @Modifying}: Spring Data only lets those return a
+     * count, and the ids are the point. It therefore runs as a query and does not
+     * clear the persistence context; callers holding the watches must stamp them
+     * themselves, as {@code NotificationOutboxService} does.
+     */
+    @Transactional
+    @Query(value = "UPDATE watched_classes SET notified_at = :now, updated_at = :now "
+            + "WHERE id IN (:ids) AND notified_at IS NULL RETURNING id", nativeQuery = true)
+    List<Long> markNotified(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    interface CourseGroupSummary {
+        String getTerm();
+        String getSubject();
+        String getCourseNumber();
+        long getWatchers();
+    }
 
     @Query("SELECT DISTINCT w.term FROM WatchedClass w")
     List<String> findDistinctTerms();
@@ -0,0 +1,31 @@
+package edu.gsu.pantherwatch.pantherwatch.repository;
+
+import edu.gsu.pantherwatch.pantherwatch.model.WatcherNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface WatcherNodeRepository extends JpaRepository<WatcherNode, String> {
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO watcher_nodes (node_id, heartbeat_at, started_at) VALUES (:nodeId, now(), now()) "
+            + "ON CONFLICT (node_id) DO UPDATE SET heartbeat_at = now()", nativeQuery = true)
+    int heartbeat(@Param("nodeId") String nodeId);
+
+    @Query(value = "SELECT node_id FROM watcher_nodes "
+            + "WHERE heartbeat_at > now() - make_interval(secs => :seconds) ORDER BY node_id", nativeQuery = true)
+    List<String> findLiveNodeIds(@Param("seconds") double seconds);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM watcher_nodes WHERE heartbeat_at < now() - make_interval(secs => :seconds)",
+            nativeQuery = true)
+    int deleteDeadNodes(@Param("seconds") double seconds);
+}
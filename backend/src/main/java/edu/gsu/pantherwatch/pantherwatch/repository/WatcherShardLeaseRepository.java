@@ -0,0 +1,54 @@
+package edu.gsu.pantherwatch.pantherwatch.repository;
+
+import edu.gsu.pantherwatch.pantherwatch.model.WatcherShardLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WatcherShardLeaseRepository extends JpaRepository<WatcherShardLease, Integer> {
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO watcher_shard_leases (shard_id) SELECT s FROM generate_series(0, :shards - 1) s "
+            + "ON CONFLICT (shard_id) DO NOTHING", nativeQuery = true)
+    int ensureShards(@Param("shards") int shards);
+
+    /**
+     * Takes or renews the given shards for {@code nodeId}, skipping any still
+     * leased to another node. Callers must not pass an empty collection.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE watcher_shard_leases "
+            + "SET owner_node_id = :nodeId, lease_until = now() + make_interval(secs => :seconds) "
+            + "WHERE shard_id IN (:shardIds) "
+            + "AND (owner_node_id = :nodeId OR owner_node_id IS NULL OR lease_until < now())", nativeQuery = true)
+    int claim(@Param("nodeId") String nodeId, @Param("shardIds") Collection<Integer> shardIds,
+              @Param("seconds") double seconds);
+
+    /** Callers must not pass an empty collection. */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE watcher_shard_leases SET owner_node_id = NULL, lease_until = NULL "
+            + "WHERE owner_node_id = :nodeId AND shard_id IN (:shardIds)", nativeQuery = true)
+    int release(@Param("nodeId") String nodeId, @Param("shardIds") Collection<Integer> shardIds);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE watcher_shard_leases SET owner_node_id = NULL, lease_until = NULL "
+            + "WHERE owner_node_id = :nodeId", nativeQuery = true)
+    int releaseAll(@Param("nodeId") String nodeId);
+
+    /** Shards held by {@code nodeId} whose lease still has more than {@code marginSeconds} left. */
+    @Query(value = "SELECT shard_id FROM watcher_shard_leases "
+            + "WHERE owner_node_id = :nodeId AND lease_until > now() + make_interval(secs => :marginSeconds)",
+            nativeQuery = true)
+    List<Integer> findOwnedShardIds(@Param("nodeId") String nodeId, @Param("marginSeconds") double marginSeconds);
+}
@@ -5,85 +5,251 @@ import edu.gsu.pantherwatch.pantherwatch.api.RetrieveCourseInfoRequest;
 import edu.gsu.pantherwatch.pantherwatch.api.RetrieveCourseInfoResponse;
 import edu.gsu.pantherwatch.pantherwatch.model.WatchedClass;
 import edu.gsu.pantherwatch.pantherwatch.repository.WatchedClassRepository;
-import edu.gsu.pantherwatch.pantherwatch.service.EmailService;
+import edu.gsu.pantherwatch.pantherwatch.service.NotificationOutboxService;
+import edu.gsu.pantherwatch.pantherwatch.service.OutboundExecutor;
 import edu.gsu.pantherwatch.pantherwatch.service.PantherWatchService;
+import edu.gsu.pantherwatch.pantherwatch.service.SectionStateService;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
 
+/**
+ * Checks watched courses for open seats and emails their watchers.
+ *
+ * Rather than checking every course every five minutes in one burst, each
+ * term|subject|courseNumber group is checked on its own steady cadence, staggered
+ * across the interval (see {@link WatchSchedule}); a short tick dispatches
+ * whichever groups are due. Each check re-prioritizes its group from what it saw
+ * ({@link WatchPriority}): courses about to open are polled every 30-60s, long-full
+ * ones back off. Each check compares the watched sections against their stored
+ * state ({@link SectionStateService}) and only loads the watch rows that need an
+ * email; re-arms are one set-based update. Emails are queued in the notification
+ * outbox ({@link NotificationOutboxService}) and sent by
+ * {@link NotificationDeliveryWorker}, never from the check itself. The roster of groups is re-read from the database every minute,
+ * so new watches are picked up within one interval.
+ *
+ * With several replicas, each only schedules the groups {@link WatcherCoordinator}
+ * assigns to it, re-reads the roster as soon as that assignment changes, and
+ * re-confirms ownership before searching and again before emailing.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class CourseWatcher {
 
+    private static final Duration ROSTER_REFRESH = Duration.ofMinutes(1);
+
     private final WatchedClassRepository watchedClassRepository;
     private final PantherWatchService pantherWatchService;
-    private final EmailService emailService;
+    private final NotificationOutboxService notificationOutboxService;
+    private final OutboundExecutor outboundExecutor;
+    private final WatcherCoordinator coordinator;
+    private final SectionStateService sectionStateService;
+
+    @Value("${pantherwatch.watcher.interval-seconds:300}")
+    private long intervalSeconds;
+
+    @Value("${pantherwatch.watcher.hot-interval-seconds:60}")
+    private long hotIntervalSeconds;
+
+    @Value("${pantherwatch.watcher.min-interval-seconds:30}")
+    private long minIntervalSeconds;
+
+    @Value("${pantherwatch.watcher.max-interval-seconds:1800}")
+    private long maxIntervalSeconds;
+
+    @Value("${pantherwatch.watcher.max-concurrent-checks:8}")
+    private int maxConcurrentChecks;
+
+    @Value("${pantherwatch.watcher.max-checks-per-minute:600}")
+    private int maxChecksPerMinute;
 
-    @Scheduled(fixedRate = 300000)
-    public void watchTrackedCourses() {
-        log.info("Starting course watch cycle...");
+    private WatchSchedule schedule;
+    private WatchPriority priority;
+    private Instant rosterLoadedAt = Instant.EPOCH;
+    private long rosterOwnershipVersion = -1;
+    private final LongAdder queuedTotal = new LongAdder();
+    private final LongAdder rearmedTotal = new LongAdder();
 
+    @PostConstruct
+    void initSchedule() {
+        schedule = new WatchSchedule(Duration.ofSeconds(intervalSeconds), maxChecksPerMinute, maxConcurrentChecks,
+                System.nanoTime());
+        priority = new WatchPriority(Duration.ofSeconds(hotIntervalSeconds), Duration.ofSeconds(minIntervalSeconds),
+                Duration.ofSeconds(maxIntervalSeconds), Duration.ofSeconds(intervalSeconds));
+    }
+
+    @Scheduled(fixedDelayString = "${pantherwatch.watcher.tick-ms:2000}")
+    public void tick() {
         try {
-            List<WatchedClass> allWatched = watchedClassRepository.findAllWithUser();
-
-            // One GoSolar search per term+subject+courseNumber covers every
-            // watched section of that course (and every user watching it).
-            // Searching by course is required: GoSolar cannot look up a CRN
-            // directly, and an unfiltered search only returns the first page
-            // of the whole catalog.
-            Map<String, List<WatchedClass>> courseGroups = new HashMap<>();
-            for (WatchedClass watched : allWatched) {
-                if (isBlank(watched.getSubject()) || isBlank(watched.getCourseNumber())) {
-                    log.warn("Watched class {} (term {}) has no subject/courseNumber; cannot check availability",
-                            watched.getCrn(), watched.getTerm());
-                    continue;
+            Instant now = Instant.now();
+            if (!now.isBefore(rosterLoadedAt.plus(ROSTER_REFRESH))
+                    || coordinator.ownershipVersion() != rosterOwnershipVersion) {
+                refreshRoster(now);
+            }
+
+            List<WatchSchedule.Group> due;
+            synchronized (schedule) {
+                due = schedule.takeDue(now, System.nanoTime());
+            }
+            for (WatchSchedule.Group group : due) {
+                // Each check blocks on GoSolar, so it runs on the outbound executor.
+                try {
+                    outboundExecutor.execute(() -> {
+                        Duration nextInterval = null;
+                        try {
+                            nextInterval = checkAndPrioritize(group);
+                        } finally {
+                            complete(group, nextInterval);
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    complete(group, null);
+                    throw e;
                 }
-                String key = watched.getTerm() + "|" + watched.getSubject() + "|" + watched.getCourseNumber();
-                courseGroups.computeIfAbsent(key, k -> new java.util.ArrayList<>()).add(watched);
             }
-            log.info("Found {} unique courses to monitor ({} watch entries)",
-                    courseGroups.size(), allWatched.size());
+        } catch (Exception e) {
+            log.error("Error during course watch tick", e);
+        }
+    }
 
-            List<CompletableFuture<Void>> futures = courseGroups.values().stream()
-                    .map(group -> CompletableFuture.runAsync(() -> checkCourseGroup(group)))
-                    .toList();
+    /** Reschedules {@code group}; a null interval (failed check) keeps its previous one. */
+    private void complete(WatchSchedule.Group group, Duration nextInterval) {
+        synchronized (schedule) {
+            if (nextInterval != null) {
+                group.interval = nextInterval;
+            }
+            schedule.completed(group, Instant.now());
+        }
+    }
 
-            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status;
+        synchronized (schedule) {
+            status = schedule.getStatus(Instant.now());
+        }
+        status.put("queued", queuedTotal.sum());
+        status.put("rearmed", rearmedTotal.sum());
+        status.put("coordination", coordinator.getStatus());
+        return status;
+    }
 
-            log.info("Course watch cycle completed");
+    private void refreshRoster(Instant now) {
+        long version = coordinator.ownershipVersion();
+        List<WatchSchedule.Group> roster = new ArrayList<>();
+        long watchEntries = 0;
+        for (WatchedClassRepository.CourseGroupSummary summary : watchedClassRepository.findCourseGroups()) {
+            // Searching by course is required: GoSolar cannot look up a CRN directly,
+            // and an unfiltered search only returns the first page of the whole catalog.
+            if (isBlank(summary.getSubject()) || isBlank(summary.getCourseNumber())) {
+                log.warn("{} watched class(es) in term {} have no subject/courseNumber; cannot check availability",
+                        summary.getWatchers(), summary.getTerm());
+                continue;
+            }
+            WatchSchedule.Group group = new WatchSchedule.Group(summary.getTerm(), summary.getSubject(),
+                    summary.getCourseNumber(), summary.getWatchers());
+            if (!coordinator.owns(group.key)) {
+                continue;
+            }
+            roster.add(group);
+            watchEntries += summary.getWatchers();
+        }
 
-        } catch (Exception e) {
-            log.error("Error during course watch cycle", e);
+        double required;
+        synchronized (schedule) {
+            schedule.updateRoster(roster, now);
+            required = schedule.requiredChecksPerMinute();
+        }
+        rosterLoadedAt = now;
+        rosterOwnershipVersion = version;
+        log.debug("Watching {} unique courses ({} watch entries)", roster.size(), watchEntries);
+        if (required > maxChecksPerMinute) {
+            log.warn("{} courses at their current priorities need {} checks/min but the budget is {}; "
+                    + "cadence will stretch", roster.size(), Math.round(required), maxChecksPerMinute);
         }
     }
 
-    /** Check every watched section of one course (same term/subject/courseNumber). */
-    private void checkCourseGroup(List<WatchedClass> group) {
-        WatchedClass sample = group.get(0);
-        String term = sample.getTerm();
+    /** Checks {@code group} and returns its next interval, or null if nothing was learned. */
+    private Duration checkAndPrioritize(WatchSchedule.Group group) {
+        if (!coordinator.owns(group.key)) {
+            return null;
+        }
+        List<String> watchedCrns = watchedClassRepository.findWatchedCrns(
+                group.term, group.subject, group.courseNumber);
+        if (watchedCrns.isEmpty()) {
+            return null;
+        }
+        List<CourseData> seen = checkCourseGroup(group, watchedCrns);
+        if (seen == null) {
+            return null;
+        }
+
+        Instant now = Instant.now();
+        WatchPriority.Proximity proximity = WatchPriority.proximity(seen);
+        String signature = seen.stream()
+                .map(s -> s.getCourseReferenceNumber() + ":" + s.getSeatsAvailable() + ":" + s.getWaitCount())
+                .sorted()
+                .collect(Collectors.joining(","));
+        boolean stale;
+        long watchers;
+        synchronized (schedule) {
+            if (!signature.equals(group.lastSignature)) {
+                group.lastSignature = signature;
+                group.lastChangedAt = now;
+            }
+            group.proximity = proximity;
+            stale = now.isAfter(group.lastChangedAt.plus(WatchPriority.STALE_AFTER));
+            watchers = group.watchers;
+        }
+        return priority.interval(proximity, watchers, stale, pantherWatchService.isViewOnlyTerm(group.term));
+    }
+
+    /**
+     * Check every watched section of one course (same term/subject/courseNumber).
+     * Returns the watched sections GoSolar reported, or null if the search failed.
+     *
+     * Watch rows are only loaded for open sections with watchers not yet emailed;
+     * sections that changed since the last check and are full again have their
+     * emailed watchers re-armed in one statement. Section state is stored last, so
+     * a check that fails halfway sees the same changes again next time.
+     */
+    private List<CourseData> checkCourseGroup(WatchSchedule.Group group, List<String> watchedCrns) {
+        String term = group.term;
 
         try {
-            log.debug("Checking availability for {} {} in term {}",
-                    sample.getSubject(), sample.getCourseNumber(), term);
+            log.debug("Checking availability for {} {} in term {}", group.subject, group.courseNumber, term);
 
             RetrieveCourseInfoRequest request = RetrieveCourseInfoRequest.builder()
                     .txtTerm(term)
-                    .txtSubject(sample.getSubject())
-                    .txtCourseNumber(sample.getCourseNumber())
+                    .txtSubject(group.subject)
+                    .txtCourseNumber(group.courseNumber)
                     .pageMaxSize(200)
                     .build();
 
-            RetrieveCourseInfoResponse response = pantherWatchService.searchCourses(request);
-            if (response == null || response.getData() == null) {
-                return;
+            // No older than the shortest poll interval, or a hot course could be
+            // judged on a snapshot from before its previous check.
+            RetrieveCourseInfoResponse response = pantherWatchService.searchCourses(request,
+                    Duration.ofSeconds(minIntervalSeconds));
+            if (response == null || !response.isSuccess() || response.getData() == null) {
+                return null;
+            }
+            if (!coordinator.owns(group.key)) {
+                // The lease lapsed mid-search; another node may already be emailing.
+                return null;
             }
 
             Map<String, CourseData> sectionsByCrn = new HashMap<>();
@@ -91,73 +257,68 @@ public class CourseWatcher {
                 sectionsByCrn.put(course.getCourseReferenceNumber(), course);
             }
 
-            for (WatchedClass watched : group) {
-                CourseData courseData = sectionsByCrn.get(watched.getCrn());
+            Map<String, CourseData> watchedSections = new HashMap<>();
+            for (String crn : watchedCrns) {
+                CourseData courseData = sectionsByCrn.get(crn);
                 if (courseData == null) {
-                    log.debug("Course not found for CRN: {} in term: {}", watched.getCrn(), term);
+                    log.debug("Course not found for CRN: {} in term: {}", crn, term);
                     continue;
                 }
-                checkAndNotifyWaitlistAvailability(courseData, watched);
+                watchedSections.put(crn, courseData);
             }
 
-        } catch (Exception e) {
-            log.error("Error checking course availability for {} {} in term: {}",
-                    sample.getSubject(), sample.getCourseNumber(), term, e);
-        }
-    }
-
-    private void checkAndNotifyWaitlistAvailability(CourseData courseData, WatchedClass watchedClass) {
-        String crn = watchedClass.getCrn();
-        boolean spotsOpen = courseData.getWaitCount() == 0 && courseData.getSeatsAvailable() > 0;
-
-        if (!spotsOpen) {
-            log.debug("No spots available for CRN: {} - Seats: {}, Waitlist: {}",
-                    crn, courseData.getSeatsAvailable(), courseData.getWaitCount());
-            // Class filled back up: re-arm so the next opening notifies again.
-            if (watchedClass.getNotifiedAt() != null) {
-                watchedClass.setNotifiedAt(null);
-                watchedClassRepository.save(watchedClass);
+            Set<String> changed = sectionStateService.changedSections(term, watchedSections.values());
+            List<String> open = new ArrayList<>();
+            List<String> refilled = new ArrayList<>();
+            for (CourseData section : watchedSections.values()) {
+                String crn = section.getCourseReferenceNumber();
+                if (isOpen(section)) {
+                    open.add(crn);
+                } else if (changed.contains(crn)) {
+                    refilled.add(crn);
+                }
             }
-            return;
-        }
 
-        // Already emailed for this opening — don't spam every cycle.
-        if (watchedClass.getNotifiedAt() != null) {
-            return;
-        }
+            // Class filled back up: re-arm so the next opening notifies again.
+            int rearmed = refilled.isEmpty() ? 0 : watchedClassRepository.rearm(term, refilled, LocalDateTime.now());
 
-        log.info("Spots available for CRN: {} - Seats: {}, Waitlist: {}",
-                crn, courseData.getSeatsAvailable(), courseData.getWaitCount());
+            // Emails go out through the outbox; the watches are stamped in the same
+            // transaction, so the check itself never waits on the email provider.
+            int queued = 0;
+            if (!open.isEmpty()) {
+                List<WatchedClass> toNotify = watchedClassRepository.findUnnotifiedWithUser(term, open);
+                for (WatchedClass watched : toNotify) {
+                    CourseData section = watchedSections.get(watched.getCrn());
+                    log.info("Spots available for CRN: {} - Seats: {}, Waitlist: {}; queueing email to {}",
+                            watched.getCrn(), section.getSeatsAvailable(), section.getWaitCount(),
+                            watched.getUser().getEmail());
+                }
+                queued = notificationOutboxService.enqueueClassAvailability(toNotify, watchedSections);
+            }
+            queuedTotal.add(queued);
+            rearmedTotal.add(rearmed);
 
-        try {
-            String userName = watchedClass.getUser().getName() != null ?
-                    watchedClass.getUser().getName() :
-                    watchedClass.getUser().getEmail().split("@")[0];
-
-            emailService.sendClassAvailabilityNotification(
-                    watchedClass.getUser().getEmail(),
-                    userName,
-                    courseData.getCourseTitle(),
-                    courseData.getCourseNumber(),
-                    courseData.getSubject(),
-                    crn,
-                    watchedClass.getTerm()
-            );
-
-            watchedClass.setNotifiedAt(LocalDateTime.now());
-            watchedClassRepository.save(watchedClass);
-
-            log.info("Notification sent to {} for course {} {}",
-                    watchedClass.getUser().getEmail(),
-                    courseData.getSubject(),
-                    courseData.getCourseNumber());
+            sectionStateService.record(term, watchedSections.values());
+            if (queued > 0 || rearmed > 0) {
+                log.info("{} {} in term {}: queued {} notification(s), re-armed {} watch(es)",
+                        group.subject, group.courseNumber, term, queued, rearmed);
+            } else {
+                log.debug("{} {} in term {}: {} watched section(s), {} changed",
+                        group.subject, group.courseNumber, term, watchedSections.size(), changed.size());
+            }
+            return new ArrayList<>(watchedSections.values());
 
         } catch (Exception e) {
-            log.error("Failed to send notification to {} for course {}",
-                    watchedClass.getUser().getEmail(), crn, e);
+            log.error("Error checking course availability for {} {} in term: {}",
+                    group.subject, group.courseNumber, term, e);
+            return null;
         }
     }
 
+    private static boolean isOpen(CourseData section) {
+        return section.getWaitCount() == 0 && section.getSeatsAvailable() > 0;
+    }
+
     private static boolean isBlank(String value) {
         return value == null || value.isBlank();
     }
@@ -1,6 +1,7 @@
 package edu.gsu.pantherwatch.pantherwatch.scheduler;
 
 import edu.gsu.pantherwatch.pantherwatch.service.GradeDistributionService;
+import edu.gsu.pantherwatch.pantherwatch.service.OutboundExecutor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
@@ -23,6 +24,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 public class GradeDistributionScraper {
 
     private final GradeDistributionService gradeService;
+    private final OutboundExecutor outboundExecutor;
 
     /** Guards against overlapping refreshes (startup, cron, and manual triggers). */
     private final AtomicBoolean running = new AtomicBoolean(false);
@@ -46,7 +48,7 @@ public class GradeDistributionScraper {
     }
 
     /**
-     * Starts a refresh on a background thread if one isn't already running.
+     * Starts a refresh in the background if one isn't already running.
      * Returns true if a new refresh was started, false if one was already in flight.
      */
     public boolean triggerRefresh() {
@@ -54,17 +56,20 @@ public class GradeDistributionScraper {
             log.info("Grade refresh already in progress; ignoring trigger");
             return false;
         }
-        Thread worker = new Thread(() -> {
-            try {
-                gradeService.refresh();
-            } catch (Exception e) {
-                log.error("Grade distribution refresh failed", e);
-            } finally {
-                running.set(false);
-            }
-        }, "grade-refresh");
-        worker.setDaemon(true);
-        worker.start();
+        try {
+            outboundExecutor.execute(() -> {
+                try {
+                    gradeService.refresh();
+                } catch (Exception e) {
+                    log.error("Grade distribution refresh failed", e);
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
         return true;
     }
 }
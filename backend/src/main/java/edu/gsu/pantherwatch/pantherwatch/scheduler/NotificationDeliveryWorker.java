@@ -0,0 +1,266 @@
+package edu.gsu.pantherwatch.pantherwatch.scheduler;
+
+import edu.gsu.pantherwatch.pantherwatch.model.NotificationOutbox;
+import edu.gsu.pantherwatch.pantherwatch.service.EmailQuotaExceededException;
+import edu.gsu.pantherwatch.pantherwatch.service.EmailService;
+import edu.gsu.pantherwatch.pantherwatch.service.NotificationChannel;
+import edu.gsu.pantherwatch.pantherwatch.service.NotificationOutboxService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drains the notification outbox, one small pool per {@link NotificationChannel},
+ * so a slow provider never holds up course checks or the other channels, and
+ * each channel is scaled and retried on its own terms.
+ *
+ * Each worker delivers one batch of up to the channel's batch size per call
+ * (for email, one Resend batch call), so a mass opening is a few requests rather
+ * than one per watcher. A recipient's rows always land in the same batch, where
+ * email coalesces them into one digest. A poll claims only as many rows as the
+ * channel's free workers can take (plus one round of look-ahead), so rows are
+ * not held in SENDING while they wait locally. The channel's headroom, e.g. what
+ * the email quota has left, counts recipients rather than rows, since a digest
+ * is one email, so a poll claims the rows of at most that many recipients. Rows
+ * claimed by a worker that died are handed back after {@code claim-timeout}.
+ *
+ * Anything the email quota still holds back is deferred until tokens return,
+ * without spending one of its attempts.
+ *
+ * Delivery is at-least-once: a batch delivered just before its worker died is
+ * delivered again once reclaimed, unless the channel dedupes it by the rows'
+ * idempotency keys (see {@code EmailNotificationChannel}).
+ */
+@Component
+@Slf4j
+public class NotificationDeliveryWorker {
+
+    private static final Duration RETENTION = Duration.ofDays(7);
+
+    private final NotificationOutboxService outboxService;
+    private final EmailService emailService;
+    private final Duration claimTimeout;
+    private final List<ChannelWorkers> channels = new ArrayList<>();
+
+    /** The delivery pool and counters of one channel. */
+    private static final class ChannelWorkers {
+        final NotificationChannel channel;
+        final ExecutorService pool;
+        final AtomicInteger inFlight = new AtomicInteger();
+        final LongAdder delivered = new LongAdder();
+        final LongAdder retried = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder deferred = new LongAdder();
+
+        ChannelWorkers(NotificationChannel channel) {
+            this.channel = channel;
+            this.pool = Executors.newFixedThreadPool(channel.concurrency(),
+                    Thread.ofVirtual().name("notify-" + channel.name() + "-", 0).factory());
+        }
+    }
+
+    public NotificationDeliveryWorker(
+            NotificationOutboxService outboxService,
+            EmailService emailService,
+            @Value("${pantherwatch.notifications.claim-timeout-seconds:300}") long claimTimeoutSeconds) {
+        this.outboxService = outboxService;
+        this.emailService = emailService;
+        this.claimTimeout = Duration.ofSeconds(claimTimeoutSeconds);
+        for (NotificationChannel channel : outboxService.getChannels()) {
+            channels.add(new ChannelWorkers(channel));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${pantherwatch.notifications.poll-ms:1000}")
+    public void poll() {
+        for (ChannelWorkers workers : channels) {
+            try {
+                poll(workers);
+            } catch (Exception e) {
+                log.error("Error polling notification outbox for channel {}", workers.channel.name(), e);
+            }
+        }
+    }
+
+    private void poll(ChannelWorkers workers) {
+        NotificationChannel channel = workers.channel;
+        long capacity = channel.concurrency() * 2L * channel.batchSize() - workers.inFlight.get();
+        long headroom = channel.headroom();
+        if (capacity <= 0 || headroom <= 0) {
+            return;
+        }
+        List<NotificationOutbox> claimed = outboxService.claim(channel.name(), (int) capacity, headroom);
+        for (List<NotificationOutbox> batch : batchesByRecipient(claimed, channel.batchSize())) {
+            workers.inFlight.addAndGet(batch.size());
+            try {
+                workers.pool.execute(() -> deliver(workers, batch));
+            } catch (RuntimeException e) {
+                // Left in SENDING; reclaimed after the claim timeout.
+                workers.inFlight.addAndGet(-batch.size());
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Splits {@code claimed} into batches of about {@code batchSize} rows without
+     * splitting any recipient's rows, so each recipient's openings go out as one
+     * digest. A recipient with more than {@code batchSize} rows gets a batch of
+     * their own.
+     */
+    static List<List<NotificationOutbox>> batchesByRecipient(List<NotificationOutbox> claimed, int batchSize) {
+        Map<String, List<NotificationOutbox>> byRecipient = new LinkedHashMap<>();
+        for (NotificationOutbox entry : claimed) {
+            byRecipient.computeIfAbsent(entry.getRecipient().toLowerCase(), r -> new ArrayList<>()).add(entry);
+        }
+        List<List<NotificationOutbox>> batches = new ArrayList<>();
+        List<NotificationOutbox> batch = new ArrayList<>();
+        for (List<NotificationOutbox> rows : byRecipient.values()) {
+            if (!batch.isEmpty() && batch.size() + rows.size() > batchSize) {
+                batches.add(batch);
+                batch = new ArrayList<>();
+            }
+            batch.addAll(rows);
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    @Scheduled(fixedDelayString = "${pantherwatch.notifications.reclaim-ms:60000}")
+    public void reclaimStale() {
+        try {
+            int reclaimed = outboxService.reclaimStale(claimTimeout);
+            if (reclaimed > 0) {
+                log.warn("Re-queued {} notification(s) abandoned mid-send", reclaimed);
+            }
+        } catch (Exception e) {
+            log.error("Error reclaiming stale notifications", e);
+        }
+    }
+
+    // Daily at 02:30 server time, after the email log cleanup.
+    @Scheduled(cron = "0 30 2 * * *")
+    public void purgeFinished() {
+        try {
+            int deleted = outboxService.purgeFinished(RETENTION);
+            log.info("Notification outbox cleanup: removed {} delivered or failed rows", deleted);
+        } catch (Exception e) {
+            log.error("Failed to clean up notification outbox: {}", e.getMessage(), e);
+        }
+    }
+
+    private void deliver(ChannelWorkers workers, List<NotificationOutbox> batch) {
+        try {
+            List<Exception> results;
+            try {
+                results = workers.channel.deliver(batch);
+            } catch (Exception e) {
+                results = Collections.nCopies(batch.size(), e);
+            }
+            List<NotificationOutbox> sent = new ArrayList<>();
+            List<NotificationOutbox> held = new ArrayList<>();
+            EmailQuotaExceededException quotaError = null;
+            for (int i = 0; i < batch.size(); i++) {
+                if (results.get(i) == null) {
+                    sent.add(batch.get(i));
+                } else if (results.get(i) instanceof EmailQuotaExceededException e) {
+                    held.add(batch.get(i));
+                    quotaError = e;
+                } else {
+                    recordFailure(workers, batch.get(i), results.get(i));
+                }
+            }
+            recordSent(workers, sent);
+            if (quotaError != null) {
+                recordDeferred(workers, held, quotaError);
+            }
+        } finally {
+            workers.inFlight.addAndGet(-batch.size());
+        }
+    }
+
+    private void recordSent(ChannelWorkers workers, List<NotificationOutbox> sent) {
+        try {
+            outboxService.markSent(sent);
+            workers.delivered.add(sent.size());
+        } catch (Exception e) {
+            log.error("Could not mark {} notification(s) sent; they will be reclaimed", sent.size(), e);
+        }
+    }
+
+    private void recordDeferred(ChannelWorkers workers, List<NotificationOutbox> held,
+                                EmailQuotaExceededException error) {
+        try {
+            // At least a minute, so an exhausted quota is not polled every second.
+            Duration delay = error.getRetryAfter().compareTo(Duration.ofMinutes(1)) > 0
+                    ? error.getRetryAfter() : Duration.ofMinutes(1);
+            outboxService.defer(held, delay, error.getMessage());
+            workers.deferred.add(held.size());
+            log.warn("Deferred {} notification(s) for {} min: {}", held.size(), delay.toMinutes(), error.getMessage());
+        } catch (Exception e) {
+            log.error("Could not defer {} notification(s); they will be reclaimed", held.size(), e);
+        }
+    }
+
+    private void recordFailure(ChannelWorkers workers, NotificationOutbox entry, Exception error) {
+        try {
+            if (outboxService.markFailed(entry, error, workers.channel.maxAttempts())) {
+                workers.retried.increment();
+                log.warn("Notification {} to {} failed (attempt {}), will retry: {}",
+                        entry.getIdempotencyKey(), entry.getRecipient(), entry.getAttempts(), error.getMessage());
+            } else {
+                workers.failed.increment();
+                log.error("Giving up on notification {} to {} after {} attempts",
+                        entry.getIdempotencyKey(), entry.getRecipient(), entry.getAttempts(), error);
+            }
+        } catch (Exception markError) {
+            log.error("Could not record failure of notification {}; it will be reclaimed",
+                    entry.getIdempotencyKey(), markError);
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> byChannel = new LinkedHashMap<>();
+        for (ChannelWorkers workers : channels) {
+            Map<String, Object> channel = new LinkedHashMap<>();
+            channel.put("workers", workers.channel.concurrency());
+            channel.put("batchSize", workers.channel.batchSize());
+            channel.put("maxAttempts", workers.channel.maxAttempts());
+            channel.put("inFlight", workers.inFlight.get());
+            channel.put("delivered", workers.delivered.sum());
+            channel.put("retried", workers.retried.sum());
+            channel.put("failed", workers.failed.sum());
+            channel.put("deferred", workers.deferred.sum());
+            byChannel.put(workers.channel.name(), channel);
+        }
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("channels", byChannel);
+        status.put("outbox", outboxService.countsByStatus());
+        status.put("batches", emailService.getBatchStats());
+        status.put("quota", emailService.getQuotaStatus());
+        return status;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Anything still in flight stays SENDING and is reclaimed by a live node.
+        for (ChannelWorkers workers : channels) {
+            workers.pool.shutdownNow();
+        }
+    }
+}
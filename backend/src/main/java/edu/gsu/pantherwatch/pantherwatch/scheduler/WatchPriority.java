@@ -0,0 +1,83 @@
+package edu.gsu.pantherwatch.pantherwatch.scheduler;
+
+import edu.gsu.pantherwatch.pantherwatch.api.CourseData;
+
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * How often a watched course group is worth checking, from what its last check saw.
+ *
+ * Courses students are fighting over get checked every {@code hotInterval} or
+ * faster; courses sitting behind a long waitlist back off to the old five-minute
+ * cadence and further once nothing has changed for hours. Concretely:
+ * <ul>
+ *   <li>NEAR: a watched section is full with no or a short waitlist, or has seats
+ *       being offered to its waitlist, so the next drop opens it: {@code hotInterval}.</li>
+ *   <li>OPEN: seats are open now (watchers were already told): 2 x hot, to catch it
+ *       filling back up and re-arm.</li>
+ *   <li>FAR: every watched section has a long waitlist: 5 x hot, doubled when
+ *       unchanged for {@link #STALE_AFTER}.</li>
+ * </ul>
+ * More watchers shorten the interval (up to half, at five watchers); a term whose
+ * registration has closed is checked at a quarter of the rate. The result is
+ * clamped to {@code [minInterval, maxInterval]}.
+ */
+final class WatchPriority {
+
+    /** How long a long-full course must stay unchanged before it is backed off further. */
+    static final Duration STALE_AFTER = Duration.ofHours(6);
+    /** Waitlists at most this long still count as close to opening. */
+    private static final int NEAR_WAITLIST = 3;
+
+    enum Proximity { NEAR, OPEN, FAR, UNKNOWN }
+
+    private final Duration hotInterval;
+    private final Duration minInterval;
+    private final Duration maxInterval;
+    private final Duration defaultInterval;
+
+    WatchPriority(Duration hotInterval, Duration minInterval, Duration maxInterval, Duration defaultInterval) {
+        this.hotInterval = hotInterval;
+        this.minInterval = minInterval;
+        this.maxInterval = maxInterval;
+        this.defaultInterval = defaultInterval;
+    }
+
+    /** The nearest-to-opening state among the watched sections seen; UNKNOWN if none were found. */
+    static Proximity proximity(Collection<CourseData> watchedSections) {
+        Proximity result = Proximity.UNKNOWN;
+        for (CourseData section : watchedSections) {
+            Proximity p = proximity(section.getSeatsAvailable(), section.getWaitCount());
+            if (p.ordinal() < result.ordinal()) {
+                result = p;
+            }
+        }
+        return result;
+    }
+
+    static Proximity proximity(int seatsAvailable, int waitCount) {
+        if (waitCount == 0 && seatsAvailable > 0) {
+            return Proximity.OPEN;
+        }
+        if (seatsAvailable > 0 || waitCount <= NEAR_WAITLIST) {
+            return Proximity.NEAR;
+        }
+        return Proximity.FAR;
+    }
+
+    Duration interval(Proximity proximity, long watchers, boolean stale, boolean registrationClosed) {
+        double seconds = switch (proximity) {
+            case NEAR -> hotInterval.toSeconds();
+            case OPEN -> hotInterval.toSeconds() * 2.0;
+            case FAR -> hotInterval.toSeconds() * (stale ? 10.0 : 5.0);
+            case UNKNOWN -> defaultInterval.toSeconds();
+        };
+        seconds /= 1 + Math.min(Math.max(watchers - 1, 0), 4) / 4.0;
+        if (registrationClosed) {
+            seconds *= 4;
+        }
+        long clamped = Math.max(minInterval.toSeconds(), Math.min(maxInterval.toSeconds(), Math.round(seconds)));
+        return Duration.ofSeconds(clamped);
+    }
+}
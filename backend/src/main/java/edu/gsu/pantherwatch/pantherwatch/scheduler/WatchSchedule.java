@@ -0,0 +1,192 @@
+package edu.gsu.pantherwatch.pantherwatch.scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * When each watched course group is next due, and which due groups may be checked
+ * right now.
+ *
+ * Every group is checked once per its own interval ({@link WatchPriority}; the
+ * default {@code interval} until its first check), first at a phase derived from
+ * its key, so a roster of N groups produces a flat stream of GoSolar searches
+ * instead of N at once. Dispatch is further capped by a token bucket
+ * ({@code maxChecksPerMinute}, bursting to ten seconds' worth) and by
+ * {@code maxConcurrent} in-flight checks; a group already being checked is never
+ * dispatched again until it completes, so a slow round never overlaps the next.
+ * When the budget cannot keep up, groups go in order of how late they are
+ * relative to their interval, so hot courses keep most of their advantage while
+ * every cadence stretches.
+ *
+ * Not thread-safe on its own; callers synchronize on the instance.
+ */
+final class WatchSchedule {
+
+    private final Duration interval;
+    private final double tokensPerNano;
+    private final double tokenCapacity;
+    private final int maxConcurrent;
+
+    private final Map<String, Group> groups = new HashMap<>();
+    private int inFlight;
+    private double tokens;
+    private long lastRefillNanos;
+
+    WatchSchedule(Duration interval, int maxChecksPerMinute, int maxConcurrent, long nowNanos) {
+        this.interval = interval;
+        this.tokensPerNano = maxChecksPerMinute / (double) Duration.ofMinutes(1).toNanos();
+        this.tokenCapacity = Math.max(1, maxChecksPerMinute / 6.0);
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.tokens = tokenCapacity;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /** A term|subject|courseNumber group and its place in the schedule. */
+    static final class Group {
+        final String key;
+        final String term;
+        final String subject;
+        final String courseNumber;
+        long watchers;
+        Instant nextDueAt;
+        boolean inFlight;
+        /** Null until the first successful check; the schedule default applies. */
+        Duration interval;
+        WatchPriority.Proximity proximity = WatchPriority.Proximity.UNKNOWN;
+        /** Seats/waitlist of the watched sections at the last check, and when that last changed. */
+        String lastSignature;
+        Instant lastChangedAt;
+
+        Group(String term, String subject, String courseNumber, long watchers) {
+            this.key = term + "|" + subject + "|" + courseNumber;
+            this.term = term;
+            this.subject = subject;
+            this.courseNumber = courseNumber;
+            this.watchers = watchers;
+        }
+    }
+
+    /**
+     * Replaces the roster: new groups are scheduled at their staggered phase within
+     * the next interval, existing ones keep their due time, and groups nobody
+     * watches anymore are dropped (a check in flight for one simply completes).
+     */
+    void updateRoster(List<Group> roster, Instant now) {
+        Map<String, Group> current = new HashMap<>();
+        for (Group incoming : roster) {
+            Group existing = groups.get(incoming.key);
+            if (existing != null) {
+                existing.watchers = incoming.watchers;
+                current.put(existing.key, existing);
+            } else {
+                incoming.nextDueAt = now.plusMillis(phaseOffsetMillis(incoming.key));
+                current.put(incoming.key, incoming);
+            }
+        }
+        groups.keySet().retainAll(current.keySet());
+        groups.putAll(current);
+    }
+
+    /**
+     * Groups to check now, latest relative to their interval first, as far as the budget and the
+     * concurrency cap allow. Each returned group is marked in flight and must be
+     * handed back through {@link #completed}.
+     */
+    List<Group> takeDue(Instant now, long nowNanos) {
+        refill(nowNanos);
+        List<Group> due = new ArrayList<>();
+        for (Group group : groups.values()) {
+            if (!group.inFlight && !group.nextDueAt.isAfter(now)) {
+                due.add(group);
+            }
+        }
+        due.sort(Comparator.comparingDouble((Group group) -> lateness(group, now)).reversed());
+
+        List<Group> dispatched = new ArrayList<>();
+        for (Group group : due) {
+            if (inFlight >= maxConcurrent || tokens < 1) {
+                break;
+            }
+            tokens -= 1;
+            inFlight++;
+            group.inFlight = true;
+            dispatched.add(group);
+        }
+        return dispatched;
+    }
+
+    /** Ends a check and schedules the group's next one, one interval after the last due time. */
+    void completed(Group group, Instant now) {
+        inFlight--;
+        group.inFlight = false;
+        Instant next = group.nextDueAt.plus(intervalOf(group));
+        group.nextDueAt = next.isBefore(now) ? now : next;
+    }
+
+    int size() {
+        return groups.size();
+    }
+
+    /** Checks per minute needed to hold every group at its own interval. */
+    double requiredChecksPerMinute() {
+        double perMinute = 0;
+        for (Group group : groups.values()) {
+            perMinute += Duration.ofMinutes(1).toMillis() / (double) Math.max(1, intervalOf(group).toMillis());
+        }
+        return perMinute;
+    }
+
+    Map<String, Object> getStatus(Instant now) {
+        long due = 0;
+        Instant oldestDue = null;
+        Map<String, Integer> byProximity = new LinkedHashMap<>();
+        for (WatchPriority.Proximity proximity : WatchPriority.Proximity.values()) {
+            byProximity.put(proximity.name().toLowerCase(), 0);
+        }
+        for (Group group : groups.values()) {
+            byProximity.merge(group.proximity.name().toLowerCase(), 1, Integer::sum);
+            if (!group.inFlight && !group.nextDueAt.isAfter(now)) {
+                due++;
+                if (oldestDue == null || group.nextDueAt.isBefore(oldestDue)) {
+                    oldestDue = group.nextDueAt;
+                }
+            }
+        }
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("groups", groups.size());
+        status.put("defaultIntervalSeconds", interval.toSeconds());
+        status.put("groupsByProximity", byProximity);
+        status.put("inFlight", inFlight);
+        status.put("due", due);
+        status.put("maxLagSeconds", oldestDue == null ? 0 : Duration.between(oldestDue, now).toSeconds());
+        status.put("requiredChecksPerMinute", Math.round(requiredChecksPerMinute()));
+        status.put("budgetChecksPerMinute", Math.round(tokensPerNano * Duration.ofMinutes(1).toNanos()));
+        return status;
+    }
+
+    private Duration intervalOf(Group group) {
+        return group.interval != null ? group.interval : interval;
+    }
+
+    /** How far past due, in units of the group's own interval. */
+    private double lateness(Group group, Instant now) {
+        return Duration.between(group.nextDueAt, now).toMillis() / (double) Math.max(1, intervalOf(group).toMillis());
+    }
+
+    private void refill(long nowNanos) {
+        tokens = Math.min(tokenCapacity, tokens + (nowNanos - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = nowNanos;
+    }
+
+    /** Stable, well-spread phase within the interval, so restarts keep the load flat. */
+    private long phaseOffsetMillis(String key) {
+        long mixed = (key.hashCode() * 0x9E3779B97F4A7C15L) >>> 1;
+        return mixed % Math.max(1, interval.toMillis());
+    }
+}
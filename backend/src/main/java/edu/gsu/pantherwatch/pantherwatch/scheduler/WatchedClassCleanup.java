@@ -1,5 +1,6 @@
 package edu.gsu.pantherwatch.pantherwatch.scheduler;
 
+import edu.gsu.pantherwatch.pantherwatch.repository.SectionStateRepository;
 import edu.gsu.pantherwatch.pantherwatch.repository.UserScheduleRepository;
 import edu.gsu.pantherwatch.pantherwatch.repository.WatchedClassRepository;
 import edu.gsu.pantherwatch.pantherwatch.service.PantherWatchService;
@@ -31,6 +32,7 @@ public class WatchedClassCleanup {
 
     private final WatchedClassRepository watchedClassRepository;
     private final UserScheduleRepository userScheduleRepository;
+    private final SectionStateRepository sectionStateRepository;
     private final WatchedClassExpiryPolicy expiryPolicy;
     private final PantherWatchService pantherWatchService;
 
@@ -50,6 +52,8 @@ public class WatchedClassCleanup {
         } else {
             int deleted = watchedClassRepository.deleteByTermIn(staleWatchedTerms);
             log.info("Tracked-class cleanup: removed {} rows across stale terms {}", deleted, staleWatchedTerms);
+            int states = sectionStateRepository.deleteByTermIn(staleWatchedTerms);
+            log.info("Section-state cleanup: removed {} rows across stale terms {}", states, staleWatchedTerms);
         }
 
         List<String> staleScheduleTerms = userScheduleRepository.findDistinctTermCodes().stream()
@@ -0,0 +1,232 @@
+package edu.gsu.pantherwatch.pantherwatch.scheduler;
+
+import edu.gsu.pantherwatch.pantherwatch.repository.WatcherNodeRepository;
+import edu.gsu.pantherwatch.pantherwatch.repository.WatcherShardLeaseRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides which watched course groups this replica checks, so that running more
+ * than one backend never checks (or emails about) the same course twice.
+ *
+ * Groups hash into a fixed number of shards. Every replica heartbeats into
+ * {@code watcher_nodes}; from the live set each one computes the same
+ * shard-to-node assignment (rendezvous hashing, so a node joining or leaving only
+ * moves the shards it gains or loses) and claims its shards in
+ * {@code watcher_shard_leases}. A claim only succeeds on a shard that is free,
+ * already ours, or whose lease has run out, so two replicas never hold one shard
+ * at once; all lease times use the database clock. A replica stops treating a
+ * shard as its own a safety margin before its lease ends, and hands shards it no
+ * longer should hold back before releasing them, so a stalled or partitioned node
+ * goes quiet before anyone else can take over.
+ *
+ * With coordination disabled (a single replica) this node owns every group.
+ */
+@Component
+@Slf4j
+public class WatcherCoordinator {
+
+    /** Local ownership ends this fraction of the lease before the lease itself does. */
+    private static final double SAFETY_MARGIN_RATIO = 1 / 3.0;
+    /** Node rows silent for this many leases are deleted. */
+    private static final int DEAD_NODE_LEASES = 10;
+
+    private final WatcherNodeRepository nodeRepository;
+    private final WatcherShardLeaseRepository leaseRepository;
+    private final boolean enabled;
+    private final int shards;
+    private final Duration lease;
+    private final String nodeId;
+
+    private volatile Ownership ownership = new Ownership(Set.of(), 0);
+    private volatile List<String> liveNodes = List.of();
+    private volatile Instant lastHeartbeatAt;
+    private volatile boolean shardsCreated;
+    private final AtomicLong ownershipVersion = new AtomicLong();
+
+    /** The shards held and the {@link System#nanoTime} after which they no longer count. */
+    private record Ownership(Set<Integer> shards, long validUntilNanos) {
+    }
+
+    public WatcherCoordinator(
+            WatcherNodeRepository nodeRepository,
+            WatcherShardLeaseRepository leaseRepository,
+            @Value("${pantherwatch.watcher.coordination.enabled:false}") boolean enabled,
+            @Value("${pantherwatch.watcher.coordination.shards:64}") int shards,
+            @Value("${pantherwatch.watcher.coordination.lease-seconds:30}") long leaseSeconds,
+            @Value("${pantherwatch.watcher.coordination.node-id:}") String nodeId) {
+        this.nodeRepository = nodeRepository;
+        this.leaseRepository = leaseRepository;
+        this.enabled = enabled;
+        this.shards = Math.max(1, shards);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.nodeId = nodeId == null || nodeId.isBlank() ? defaultNodeId() : nodeId;
+        if (enabled) {
+            log.info("Course watcher coordination enabled as node {} ({} shards, {}s leases)",
+                    this.nodeId, this.shards, leaseSeconds);
+        }
+    }
+
+    /** Whether this node should check the group with this key right now. */
+    public boolean owns(String groupKey) {
+        if (!enabled) {
+            return true;
+        }
+        Ownership current = ownership;
+        return System.nanoTime() - current.validUntilNanos() < 0
+                && current.shards().contains(shardOf(groupKey, shards));
+    }
+
+    /** Changes whenever the set of shards this node holds does. */
+    public long ownershipVersion() {
+        return ownershipVersion.get();
+    }
+
+    @Scheduled(fixedDelayString = "${pantherwatch.watcher.coordination.heartbeat-ms:10000}")
+    public void heartbeat() {
+        if (!enabled) {
+            return;
+        }
+        long startedNanos = System.nanoTime();
+        double leaseSeconds = lease.toMillis() / 1000.0;
+        try {
+            if (!shardsCreated) {
+                leaseRepository.ensureShards(shards);
+                shardsCreated = true;
+            }
+            nodeRepository.heartbeat(nodeId);
+            nodeRepository.deleteDeadNodes(leaseSeconds * DEAD_NODE_LEASES);
+            List<String> live = new ArrayList<>(nodeRepository.findLiveNodeIds(leaseSeconds));
+            if (!live.contains(nodeId)) {
+                live.add(nodeId);
+            }
+            Set<Integer> target = assignedShards(live, nodeId, shards);
+
+            Set<Integer> leaving = new HashSet<>(ownership.shards());
+            leaving.removeAll(target);
+            if (!leaving.isEmpty()) {
+                // Stop checking them before another node is able to claim them.
+                Set<Integer> kept = new HashSet<>(ownership.shards());
+                kept.removeAll(leaving);
+                setOwnership(kept, ownership.validUntilNanos());
+                leaseRepository.release(nodeId, leaving);
+            }
+            if (!target.isEmpty()) {
+                leaseRepository.claim(nodeId, target, leaseSeconds);
+            }
+            Set<Integer> owned = new HashSet<>(leaseRepository.findOwnedShardIds(nodeId, 0));
+            // Measured from before the claim, so this always lapses before the lease does.
+            long validFor = (long) (lease.toNanos() * (1 - SAFETY_MARGIN_RATIO));
+            setOwnership(owned, startedNanos + validFor);
+            liveNodes = List.copyOf(live);
+            lastHeartbeatAt = Instant.now();
+            if (owned.size() < target.size()) {
+                log.debug("Holding {}/{} assigned shards; the rest are still leased elsewhere",
+                        owned.size(), target.size());
+            }
+        } catch (Exception e) {
+            log.warn("Course watcher heartbeat failed; this node stops checking its shards once the lease lapses",
+                    e);
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        if (!enabled) {
+            return status;
+        }
+        Ownership current = ownership;
+        status.put("nodeId", nodeId);
+        status.put("liveNodes", liveNodes);
+        status.put("shards", shards);
+        status.put("ownedShards", current.shards().size());
+        status.put("ownershipValid", System.nanoTime() - current.validUntilNanos() < 0);
+        status.put("lastHeartbeatAt", lastHeartbeatAt);
+        return status;
+    }
+
+    @PreDestroy
+    public void leave() {
+        if (!enabled) {
+            return;
+        }
+        setOwnership(Set.of(), 0);
+        try {
+            leaseRepository.releaseAll(nodeId);
+            nodeRepository.deleteById(nodeId);
+        } catch (Exception e) {
+            log.warn("Could not release watcher shards on shutdown; they lapse with their leases", e);
+        }
+    }
+
+    private void setOwnership(Set<Integer> owned, long validUntilNanos) {
+        Set<Integer> previous = ownership.shards();
+        ownership = new Ownership(Set.copyOf(owned), validUntilNanos);
+        if (!previous.equals(owned)) {
+            ownershipVersion.incrementAndGet();
+            log.info("Course watcher now holds {}/{} shards", owned.size(), shards);
+        }
+    }
+
+    static int shardOf(String groupKey, int shards) {
+        return (int) Long.remainderUnsigned(mix(groupKey.hashCode()), shards);
+    }
+
+    /**
+     * The shards {@code self} should hold among {@code liveNodes}: each shard goes
+     * to the node with the highest hash of (node, shard). Every node computes the
+     * same answer from the same live set.
+     */
+    static Set<Integer> assignedShards(List<String> liveNodes, String self, int shards) {
+        Set<Integer> assigned = new HashSet<>();
+        for (int shard = 0; shard < shards; shard++) {
+            String winner = null;
+            long best = 0;
+            for (String node : liveNodes) {
+                long weight = mix(node.hashCode() ^ mix(shard));
+                if (winner == null || Long.compareUnsigned(weight, best) > 0
+                        || (weight == best && node.compareTo(winner) < 0)) {
+                    winner = node;
+                    best = weight;
+                }
+            }
+            if (self.equals(winner)) {
+                assigned.add(shard);
+            }
+        }
+        return assigned;
+    }
+
+    /** SplitMix64 finalizer. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -3,6 +3,7 @@ package edu.gsu.pantherwatch.pantherwatch.security;
 import edu.gsu.pantherwatch.pantherwatch.model.User;
 import edu.gsu.pantherwatch.pantherwatch.service.JwtService;
 import edu.gsu.pantherwatch.pantherwatch.service.UserService;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
@@ -33,6 +34,12 @@ public class AuthenticationInterceptor implements HandlerInterceptor {
             return true;
         }
 
+        // Reactive handlers (e.g. /full-details) complete on an ASYNC re-dispatch of the
+        // same request, which was already authenticated on its initial dispatch.
+        if (request.getDispatcherType() == DispatcherType.ASYNC && request.getAttribute("currentUser") != null) {
+            return true;
+        }
+
         String authHeader = request.getHeader("Authorization");
         logger.debug("Auth header received: {}", authHeader != null ? "Bearer [REDACTED]" : "null");
         
@@ -1,5 +1,7 @@
 package edu.gsu.pantherwatch.pantherwatch.service;
 
+import edu.gsu.pantherwatch.pantherwatch.api.SendBulkEmailRequest;
+import edu.gsu.pantherwatch.pantherwatch.api.SendBulkEmailResponse;
 import edu.gsu.pantherwatch.pantherwatch.api.SendCustomEmailRequest;
 import edu.gsu.pantherwatch.pantherwatch.api.SendCustomEmailResponse;
 import edu.gsu.pantherwatch.pantherwatch.api.UserSearchResponse;
@@ -11,8 +13,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -106,6 +111,54 @@ public class AdminService {
         }
     }
     
+    /**
+     * Sends one message to many recipients through the batch email API (100 per
+     * call). Duplicate addresses are sent once.
+     */
+    public SendBulkEmailResponse sendBulkCustomEmail(SendBulkEmailRequest request, String adminEmail) {
+        if (!isAdmin(adminEmail)) {
+            log.warn("Unauthorized access attempt by non-admin: {}", adminEmail);
+            return SendBulkEmailResponse.builder()
+                    .success(false)
+                    .message("Unauthorized: User is not an admin")
+                    .failedRecipients(List.of())
+                    .build();
+        }
+
+        List<String> recipients = new ArrayList<>(new LinkedHashSet<>(request.getTargetEmails()));
+        log.info("Admin {} sending bulk email to {} recipient(s) with subject: {}",
+                adminEmail, recipients.size(), request.getSubject());
+
+        Map<String, User> users = userRepository.findByEmailIn(recipients).stream()
+                .collect(Collectors.toMap(User::getEmail, user -> user, (a, b) -> a));
+        List<EmailService.CustomEmail> emails = new ArrayList<>(recipients.size());
+        for (String recipient : recipients) {
+            User user = users.get(recipient);
+            String userName = user != null && user.getName() != null ? user.getName() : recipient.split("@")[0];
+            emails.add(new EmailService.CustomEmail(recipient, userName, request.getSubject(), request.getMessage()));
+        }
+
+        List<Exception> results = emailService.sendCustomEmails(emails);
+        List<String> failedRecipients = new ArrayList<>();
+        for (int i = 0; i < recipients.size(); i++) {
+            if (results.get(i) != null) {
+                failedRecipients.add(recipients.get(i));
+            }
+        }
+        int sent = recipients.size() - failedRecipients.size();
+        log.info("Admin {} bulk email: {} sent, {} failed", adminEmail, sent, failedRecipients.size());
+
+        return SendBulkEmailResponse.builder()
+                .success(failedRecipients.isEmpty())
+                .message(failedRecipients.isEmpty()
+                        ? "Email sent to " + sent + " recipient(s)"
+                        : "Failed to send to " + failedRecipients.size() + " of " + recipients.size() + " recipient(s)")
+                .sent(sent)
+                .failed(failedRecipients.size())
+                .failedRecipients(failedRecipients)
+                .build();
+    }
+
     public List<UserSearchResponse> getAllUsers(String adminEmail) {
         if (!isAdmin(adminEmail)) {
             throw new RuntimeException("Unauthorized: User is not an admin");
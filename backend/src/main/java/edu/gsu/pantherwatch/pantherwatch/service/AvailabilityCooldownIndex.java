@@ -0,0 +1,70 @@
+package edu.gsu.pantherwatch.pantherwatch.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory record of which (recipient, term, CRN) availability emails went out
+ * within the cooldown, so the per-notification dedupe check is a map lookup.
+ *
+ * Entries are also filed in time buckets ({@code bucket} wide) by send time, so
+ * expiry drops whole buckets older than the cooldown instead of scanning every
+ * entry. It only knows what this process sent or was warmed with; callers fall
+ * back to the email log for keys it has not seen. Thread-safe.
+ */
+final class AvailabilityCooldownIndex {
+
+    /** Stands in for the term of log rows written before the term was recorded. */
+    static final String ANY_TERM = "*";
+
+    private final long cooldownMillis;
+    private final long bucketMillis;
+    private final Map<String, Long> lastSentAt = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Set<String>> buckets = new ConcurrentSkipListMap<>();
+
+    AvailabilityCooldownIndex(Duration cooldown, Duration bucket) {
+        this.cooldownMillis = cooldown.toMillis();
+        this.bucketMillis = Math.max(1, bucket.toMillis());
+    }
+
+    /** Whether an email for this recipient, term and CRN went out within the cooldown of {@code nowMillis}. */
+    boolean contains(String email, String term, String crn, long nowMillis) {
+        long cutoff = nowMillis - cooldownMillis;
+        Long exact = lastSentAt.get(key(email, term, crn));
+        if (exact != null && exact > cutoff) {
+            return true;
+        }
+        Long legacy = lastSentAt.get(key(email, ANY_TERM, crn));
+        return legacy != null && legacy > cutoff;
+    }
+
+    void record(String email, String term, String crn, long sentAtMillis) {
+        String key = key(email, term == null ? ANY_TERM : term, crn);
+        lastSentAt.merge(key, sentAtMillis, Math::max);
+        buckets.computeIfAbsent(sentAtMillis / bucketMillis, b -> ConcurrentHashMap.newKeySet()).add(key);
+    }
+
+    /** Forgets everything sent before the cooldown window of {@code nowMillis}. */
+    void evictExpired(long nowMillis) {
+        long cutoff = nowMillis - cooldownMillis;
+        Map<Long, Set<String>> expired = buckets.headMap(cutoff / bucketMillis);
+        for (Set<String> keys : expired.values()) {
+            for (String key : keys) {
+                // A key re-sent later lives on in a newer bucket.
+                lastSentAt.computeIfPresent(key, (k, sentAt) -> sentAt <= cutoff ? null : sentAt);
+            }
+        }
+        expired.clear();
+    }
+
+    int size() {
+        return lastSentAt.size();
+    }
+
+    private static String key(String email, String term, String crn) {
+        return email.toLowerCase() + '|' + term + '|' + crn;
+    }
+}
@@ -0,0 +1,77 @@
+package edu.gsu.pantherwatch.pantherwatch.service;
+
+import edu.gsu.pantherwatch.pantherwatch.api.RetrieveCourseInfoResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight deduplication of GoSolar course searches.
+ *
+ * When registration opens, many users load {@code /full-details} for the same
+ * courses at once; each cache miss would otherwise fire its own term declaration
+ * and search. The first caller for a {@link CourseSearchKey} performs the search
+ * and every identical call that arrives while it is in flight waits for, and
+ * shares, that one result. Nothing is retained once the search completes; reuse
+ * across time is the {@link CourseSnapshotCache}'s job.
+ */
+@Component
+public class CourseSearchCoalescer {
+
+    private final ConcurrentHashMap<CourseSearchKey, CompletableFuture<RetrieveCourseInfoResponse>> inFlight =
+            new ConcurrentHashMap<>();
+
+    private final LongAdder leaders = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+
+    /**
+     * Runs {@code search} unless an identical search is already in flight, in which
+     * case its result (or failure) is shared. Waiting needs no timeout of its own:
+     * the leading search is bounded by the GoSolar client's timeouts.
+     */
+    public RetrieveCourseInfoResponse execute(CourseSearchKey key, Supplier<RetrieveCourseInfoResponse> search) {
+        return executeReactive(key, () -> Mono.fromSupplier(search)).block();
+    }
+
+    /**
+     * Non-blocking {@link #execute}. The leading search is subscribed independently
+     * of its caller, so it runs to completion for the followers even if the caller
+     * that started it cancels.
+     */
+    public Mono<RetrieveCourseInfoResponse> executeReactive(CourseSearchKey key,
+                                                            Supplier<Mono<RetrieveCourseInfoResponse>> search) {
+        return Mono.defer(() -> {
+            CompletableFuture<RetrieveCourseInfoResponse> mine = new CompletableFuture<>();
+            CompletableFuture<RetrieveCourseInfoResponse> existing = inFlight.putIfAbsent(key, mine);
+            if (existing != null) {
+                collapsed.increment();
+                return Mono.fromFuture(existing, true);
+            }
+
+            leaders.increment();
+            Mono.defer(search).toFuture().whenComplete((response, error) -> {
+                inFlight.remove(key, mine);
+                if (error != null) {
+                    mine.completeExceptionally(error);
+                } else {
+                    mine.complete(response);
+                }
+            });
+            return Mono.fromFuture(mine, true);
+        });
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("inFlight", inFlight.size());
+        status.put("upstreamSearches", leaders.sum());
+        status.put("collapsed", collapsed.sum());
+        return status;
+    }
+}
@@ -0,0 +1,33 @@
+package edu.gsu.pantherwatch.pantherwatch.service;
+
+import edu.gsu.pantherwatch.pantherwatch.api.RetrieveCourseInfoRequest;
+
+/**
+ * Normalized identity of a GoSolar course search. Two requests that GoSolar would
+ * answer identically map to the same key, regardless of casing, stray whitespace or
+ * a blank vs. missing level.
+ */
+public record CourseSearchKey(String term, String subject, String courseNumber, String level,
+                              int pageOffset, int pageMaxSize) {
+
+    public static CourseSearchKey of(RetrieveCourseInfoRequest request) {
+        return new CourseSearchKey(
+                clean(request.getTxtTerm()),
+                clean(request.getTxtSubject()).toUpperCase(),
+                clean(request.getTxtCourseNumber()).toUpperCase(),
+                clean(request.getTxtLevel()).toUpperCase(),
+                request.getPageOffset() != null ? request.getPageOffset() : 0,
+                request.getPageMaxSize() != null ? request.getPageMaxSize() : 200);
+    }
+
+    private static String clean(String value) {
+        return value == null ? "" : value.trim();
+    }
+
+    @Override
+    public String toString() {
+        return term + "|" + subject + "|" + courseNumber
+                + (level.isEmpty() ? "" : "|" + level)
+                + "|" + pageOffset + "+" + pageMaxSize;
+    }
+}
@@ -0,0 +1,229 @@
+package edu.gsu.pantherwatch.pantherwatch.service;
+
+import edu.gsu.pantherwatch.pantherwatch.api.RetrieveCourseInfoResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived snapshots of GoSolar course searches, shared by every caller of
+ * {@link PantherWatchService#searchCourses}: the public search endpoint, the
+ * tracked-classes {@code /full-details} view and the {@code CourseWatcher}.
+ *
+ * The same term|subject|courseNumber is typically requested by all three within
+ * seconds of each other (a popular course during registration is watched by many
+ * users, each of whom opens the dashboard), and every upstream search costs a term
+ * declaration plus a search round trip. Within {@code ttl} a snapshot is served
+ * as-is; for a further {@code staleWindow} it is still served immediately while a
+ * single background refresh replaces it. Failed searches are never cached.
+ *
+ * Snapshots are shared between callers and must be treated as read-only.
+ */
+@Component
+@Slf4j
+public class CourseSnapshotCache {
+
+    /** How many of the busiest keys {@link #getStatus()} reports individually. */
+    private static final int STATUS_TOP_KEYS = 20;
+
+    private final Duration ttl;
+    private final Duration staleWindow;
+    private final int maxEntries;
+    private final Clock clock;
+
+    // Access-ordered so the least recently used key is evicted first. Every slot
+    // also carries the key's counters, which therefore live as long as the key does.
+    private final Map<CourseSearchKey, Slot> slots;
+    private final Set<CourseSearchKey> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public CourseSnapshotCache(
+            @Value("${pantherwatch.gosolar.cache.ttl-seconds:30}") long ttlSeconds,
+            @Value("${pantherwatch.gosolar.cache.stale-seconds:60}") long staleSeconds,
+            @Value("${pantherwatch.gosolar.cache.max-entries:2000}") int maxEntries) {
+        this(Duration.ofSeconds(ttlSeconds), Duration.ofSeconds(staleSeconds), maxEntries, Clock.systemUTC());
+    }
+
+    CourseSnapshotCache(Duration ttl, Duration staleWindow, int maxEntries, Clock clock) {
+        this.ttl = ttl;
+        this.staleWindow = staleWindow;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.slots = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CourseSearchKey, Slot> eldest) {
+                if (size() > CourseSnapshotCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns a fresh or still-servable snapshot for {@code key}, calling
+     * {@code loader} on a miss. A stale hit schedules at most one background
+     * refresh per key.
+     */
+    public RetrieveCourseInfoResponse get(CourseSearchKey key, Supplier<RetrieveCourseInfoResponse> loader) {
+        return getReactive(key, () -> Mono.fromSupplier(loader)).block();
+    }
+
+    /**
+     * Non-blocking {@link #get}: a hit completes immediately; a miss subscribes to
+     * the loader's {@code Mono}.
+     */
+    public Mono<RetrieveCourseInfoResponse> getReactive(CourseSearchKey key,
+                                                        Supplier<Mono<RetrieveCourseInfoResponse>> loader) {
+        return getReactive(key, ttl.plus(staleWindow), loader);
+    }
+
+    /**
+     * {@link #getReactive(CourseSearchKey, Supplier)}, but never serves a snapshot
+     * older than {@code maxAge}: an older one is reloaded as on a miss. For callers
+     * that act on what they read, like the watcher, which must not see data older
+     * than its own poll interval.
+     */
+    public Mono<RetrieveCourseInfoResponse> getReactive(CourseSearchKey key, Duration maxAge,
+                                                        Supplier<Mono<RetrieveCourseInfoResponse>> loader) {
+        return Mono.defer(() -> {
+            Instant now = clock.instant();
+            Slot slot = slot(key);
+            Snapshot snapshot = slot.snapshot;
+
+            if (snapshot != null) {
+                Instant freshUntil = snapshot.fetchedAt.plus(min(ttl, maxAge));
+                Instant servableUntil = snapshot.fetchedAt.plus(min(ttl.plus(staleWindow), maxAge));
+                if (now.isBefore(freshUntil)) {
+                    hits.increment();
+                    slot.hits.increment();
+                    return Mono.just(snapshot.response);
+                }
+                if (now.isBefore(servableUntil)) {
+                    staleHits.increment();
+                    slot.staleHits.increment();
+                    scheduleRefresh(key, loader);
+                    return Mono.just(snapshot.response);
+                }
+            }
+
+            misses.increment();
+            slot.misses.increment();
+            return load(key, loader);
+        });
+    }
+
+    /** Drops every snapshot (counters included). */
+    public void clear() {
+        synchronized (slots) {
+            slots.clear();
+        }
+    }
+
+    /** Cache-wide counters plus the busiest keys, for the admin panel. */
+    public Map<String, Object> getStatus() {
+        List<Map.Entry<CourseSearchKey, Slot>> entries;
+        synchronized (slots) {
+            entries = List.copyOf(slots.entrySet());
+        }
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("entries", entries.size());
+        status.put("maxEntries", maxEntries);
+        status.put("ttlSeconds", ttl.toSeconds());
+        status.put("staleSeconds", staleWindow.toSeconds());
+        status.put("hits", hits.sum());
+        status.put("staleHits", staleHits.sum());
+        status.put("misses", misses.sum());
+        status.put("refreshes", refreshes.sum());
+        status.put("evictions", evictions.sum());
+        status.put("topKeys", entries.stream()
+                .sorted(Comparator.comparingLong((Map.Entry<CourseSearchKey, Slot> e) -> e.getValue().requests())
+                        .reversed())
+                .limit(STATUS_TOP_KEYS)
+                .map(e -> {
+                    Map<String, Object> keyStats = new LinkedHashMap<>();
+                    keyStats.put("key", e.getKey().toString());
+                    keyStats.put("hits", e.getValue().hits.sum());
+                    keyStats.put("staleHits", e.getValue().staleHits.sum());
+                    keyStats.put("misses", e.getValue().misses.sum());
+                    return keyStats;
+                })
+                .toList());
+        return status;
+    }
+
+    private Mono<RetrieveCourseInfoResponse> load(CourseSearchKey key,
+                                                  Supplier<Mono<RetrieveCourseInfoResponse>> loader) {
+        return loader.get().doOnNext(response -> {
+            if (isCacheable(response)) {
+                slot(key).snapshot = new Snapshot(response, clock.instant());
+            }
+        });
+    }
+
+    private void scheduleRefresh(CourseSearchKey key, Supplier<Mono<RetrieveCourseInfoResponse>> loader) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        refreshes.increment();
+        // boundedElastic because a loader may still block (the blocking get() wraps one).
+        Mono.defer(() -> load(key, loader))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doFinally(signal -> refreshing.remove(key))
+                .subscribe(
+                        response -> { },
+                        error -> log.warn("Background refresh of {} failed (keeping stale snapshot): {}",
+                                key, error.getMessage()));
+    }
+
+    private Slot slot(CourseSearchKey key) {
+        synchronized (slots) {
+            return slots.computeIfAbsent(key, k -> new Slot());
+        }
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    private static boolean isCacheable(RetrieveCourseInfoResponse response) {
+        return response != null && response.isSuccess() && response.getData() != null;
+    }
+
+    private record Snapshot(RetrieveCourseInfoResponse response, Instant fetchedAt) {
+    }
+
+    private static final class Slot {
+        private volatile Snapshot snapshot;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder staleHits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        private long requests() {
+            return hits.sum() + staleHits.sum() + misses.sum();
+        }
+    }
+}
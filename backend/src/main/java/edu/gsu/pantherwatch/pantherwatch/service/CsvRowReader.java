@@ -0,0 +1,91 @@
+package edu.gsu.pantherwatch.pantherwatch.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC-4180 CSV reader (quoted fields, escaped quotes, CR/LF/CRLF line
+ * ends) that hands out one row at a time, so a grade export is processed in
+ * memory proportional to its widest row rather than its size. Blank lines are
+ * skipped. Wrap the source in a buffered reader; this reads it char by char.
+ */
+final class CsvRowReader implements Closeable {
+
+    private final Reader in;
+    private final StringBuilder field = new StringBuilder();
+    private int pushedBack = -2;
+
+    CsvRowReader(Reader in) {
+        this.in = in;
+    }
+
+    /** The next non-blank row, or null at end of input. */
+    List<String> next() throws IOException {
+        while (true) {
+            List<String> row = new ArrayList<>();
+            boolean inQuotes = false;
+            boolean any = false;
+            int ch;
+            while ((ch = read()) != -1) {
+                any = true;
+                if (inQuotes) {
+                    if (ch == '"') {
+                        int following = read();
+                        if (following == '"') {
+                            field.append('"');
+                        } else {
+                            inQuotes = false;
+                            unread(following);
+                        }
+                    } else {
+                        field.append((char) ch);
+                    }
+                } else if (ch == '"') {
+                    inQuotes = true;
+                } else if (ch == ',') {
+                    row.add(field.toString());
+                    field.setLength(0);
+                } else if (ch == '\n' || ch == '\r') {
+                    if (ch == '\r') {
+                        int following = read();
+                        if (following != '\n') {
+                            unread(following);
+                        }
+                    }
+                    break;
+                } else {
+                    field.append((char) ch);
+                }
+            }
+            if (!any) {
+                return null;
+            }
+            row.add(field.toString());
+            field.setLength(0);
+            if (row.size() > 1 || !row.get(0).isEmpty()) {
+                return row;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int ch = pushedBack;
+            pushedBack = -2;
+            return ch;
+        }
+        return in.read();
+    }
+
+    private void unread(int ch) {
+        pushedBack = ch;
+    }
+}
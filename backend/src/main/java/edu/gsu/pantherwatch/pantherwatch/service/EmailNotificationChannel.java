@@ -0,0 +1,82 @@
+package edu.gsu.pantherwatch.pantherwatch.service;
+
+import edu.gsu.pantherwatch.pantherwatch.model.NotificationOutbox;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seat-opening emails through Resend, coalesced per recipient and capped by the
+ * send quota. Each Resend call carries an idempotency key derived from its rows'
+ * keys, so a batch re-sent after its worker died unrecorded is not emailed
+ * twice, as long as the same rows batch up the same way within Resend's 24-hour
+ * key window. Delivery is still at-least-once: rows reclaimed alongside others
+ * may form a different batch, which Resend sends again.
+ */
+@Component
+public class EmailNotificationChannel implements NotificationChannel {
+
+    public static final String NAME = "email";
+
+    private final EmailService emailService;
+    private final boolean enabled;
+    private final int concurrency;
+    private final int batchSize;
+    private final int maxAttempts;
+
+    public EmailNotificationChannel(
+            EmailService emailService,
+            @Value("${pantherwatch.notifications.email.enabled:true}") boolean enabled,
+            @Value("${pantherwatch.notifications.workers:2}") int concurrency,
+            @Value("${pantherwatch.notifications.batch-size:100}") int batchSize,
+            @Value("${pantherwatch.notifications.max-attempts:8}") int maxAttempts) {
+        this.emailService = emailService;
+        this.enabled = enabled;
+        this.concurrency = Math.max(1, concurrency);
+        this.batchSize = Math.max(1, Math.min(batchSize, EmailService.MAX_BATCH_SIZE));
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public int concurrency() {
+        return concurrency;
+    }
+
+    @Override
+    public int batchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public int maxAttempts() {
+        return maxAttempts;
+    }
+
+    @Override
+    public long headroom() {
+        return emailService.availableNotificationQuota();
+    }
+
+    @Override
+    public List<Exception> deliver(List<NotificationOutbox> batch) {
+        List<EmailService.ClassAvailabilityEmail> emails = new ArrayList<>(batch.size());
+        for (NotificationOutbox entry : batch) {
+            emails.add(new EmailService.ClassAvailabilityEmail(entry.getRecipient(), entry.getRecipientName(),
+                    entry.getCourseTitle(), entry.getCourseNumber(), entry.getSubject(), entry.getCrn(),
+                    entry.getTerm(), entry.getIdempotencyKey()));
+        }
+        return emailService.sendClassAvailabilityNotifications(emails);
+    }
+}
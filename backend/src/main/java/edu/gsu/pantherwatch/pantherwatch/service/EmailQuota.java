@@ -0,0 +1,221 @@
+package edu.gsu.pantherwatch.pantherwatch.service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Live accounting of the provider's daily and monthly send quotas, and the gate
+ * every outgoing email passes through.
+ *
+ * Each window is a token bucket holding {@code limit} tokens; a send spends one,
+ * and the token comes back when that send ages out of the window (a rolling day,
+ * and 30 days for the month). Sends are counted in {@link #BUCKET} wide slots of
+ * a ring covering the month, so both counts are a sum over at most a month of
+ * slots rather than a query.
+ *
+ * Lower priorities stop short of an empty bucket: each keeps back a fraction of
+ * both limits ({@code reserves}) for the priorities above it, so when a mass
+ * opening drains the budget, account mail stops first, admin mail next, and seat
+ * notifications get the rest. Thread-safe.
+ */
+final class EmailQuota {
+
+    /** Highest first; a priority may only spend tokens above its reserve. */
+    enum Priority { AVAILABILITY, ADMIN, ACCOUNT }
+
+    static final Duration BUCKET = Duration.ofMinutes(10);
+    static final Duration DAY = Duration.ofDays(1);
+    static final Duration MONTH = Duration.ofDays(30);
+
+    private static final long BUCKET_MILLIS = BUCKET.toMillis();
+    private static final int DAY_BUCKETS = (int) (DAY.toMillis() / BUCKET_MILLIS);
+    private static final int MONTH_BUCKETS = (int) (MONTH.toMillis() / BUCKET_MILLIS);
+
+    private final int dailyLimit;
+    private final int monthlyLimit;
+    private final double[] reserves;
+
+    /** Sends per slot; {@code slotBucket} says which bucket a slot currently holds. */
+    private final long[] counts = new long[MONTH_BUCKETS];
+    private final long[] slotBucket = new long[MONTH_BUCKETS];
+    private final long[] denied = new long[Priority.values().length];
+
+    /**
+     * @param reserves fraction of each limit kept back from each priority, indexed
+     *                 by {@link Priority#ordinal()}
+     */
+    EmailQuota(int dailyLimit, int monthlyLimit, double... reserves) {
+        if (reserves.length != Priority.values().length) {
+            throw new IllegalArgumentException("One reserve per priority expected");
+        }
+        this.dailyLimit = Math.max(0, dailyLimit);
+        this.monthlyLimit = Math.max(0, monthlyLimit);
+        this.reserves = reserves.clone();
+        Arrays.fill(slotBucket, -1);
+    }
+
+    /**
+     * Spends up to {@code wanted} tokens at {@code priority}; returns how many were
+     * granted. Hand back tokens for sends that then fail through {@link #release}.
+     */
+    synchronized int tryAcquire(Priority priority, int wanted, long nowMillis) {
+        int granted = (int) Math.min(Math.max(wanted, 0), available(priority, nowMillis));
+        if (granted > 0) {
+            add(nowMillis / BUCKET_MILLIS, granted);
+        }
+        if (granted < wanted) {
+            denied[priority.ordinal()] += wanted - granted;
+        }
+        return granted;
+    }
+
+    /** Returns tokens acquired at {@code acquiredAtMillis} for sends that did not go out. */
+    synchronized void release(int count, long acquiredAtMillis) {
+        long bucket = acquiredAtMillis / BUCKET_MILLIS;
+        int slot = slot(bucket);
+        if (count > 0 && slotBucket[slot] == bucket) {
+            counts[slot] = Math.max(0, counts[slot] - count);
+        }
+    }
+
+    /** Tokens {@code priority} may still spend right now. */
+    synchronized long available(Priority priority, long nowMillis) {
+        long bucket = nowMillis / BUCKET_MILLIS;
+        double reserve = reserves[priority.ordinal()];
+        long daily = dailyLimit - (long) Math.ceil(dailyLimit * reserve) - sum(bucket, DAY_BUCKETS);
+        long monthly = monthlyLimit - (long) Math.ceil(monthlyLimit * reserve) - sum(bucket, MONTH_BUCKETS);
+        return Math.max(0, Math.min(daily, monthly));
+    }
+
+    int dailyLimit() {
+        return dailyLimit;
+    }
+
+    int monthlyLimit() {
+        return monthlyLimit;
+    }
+
+    synchronized long dailyCount(long nowMillis) {
+        return sum(nowMillis / BUCKET_MILLIS, DAY_BUCKETS);
+    }
+
+    synchronized long monthlyCount(long nowMillis) {
+        return sum(nowMillis / BUCKET_MILLIS, MONTH_BUCKETS);
+    }
+
+    /**
+     * How long until {@code priority} gets a token back, assuming no new sends:
+     * when enough of the oldest sends in each exhausted window have aged out.
+     * Zero if it has tokens now.
+     */
+    synchronized Duration retryAfter(Priority priority, long nowMillis) {
+        if (available(priority, nowMillis) > 0) {
+            return Duration.ZERO;
+        }
+        long bucket = nowMillis / BUCKET_MILLIS;
+        double reserve = reserves[priority.ordinal()];
+        long wait = Math.max(
+                waitBuckets(bucket, DAY_BUCKETS, dailyLimit - (long) Math.ceil(dailyLimit * reserve)),
+                waitBuckets(bucket, MONTH_BUCKETS, monthlyLimit - (long) Math.ceil(monthlyLimit * reserve)));
+        return Duration.ofMillis(Math.max(0, (bucket + wait) * BUCKET_MILLIS - nowMillis));
+    }
+
+    /**
+     * Folds in send times recorded elsewhere (the email log, which other replicas
+     * also write). Each slot keeps the larger of its own and the logged count, so
+     * re-merging the same log never double counts and local sends the log lacks are
+     * kept.
+     */
+    synchronized void merge(Collection<Long> sentAtMillis, long nowMillis) {
+        long current = nowMillis / BUCKET_MILLIS;
+        long[] logged = new long[MONTH_BUCKETS];
+        for (long sentAt : sentAtMillis) {
+            long bucket = sentAt / BUCKET_MILLIS;
+            if (bucket <= current && bucket > current - MONTH_BUCKETS) {
+                logged[(int) (current - bucket)]++;
+            }
+        }
+        for (int age = 0; age < MONTH_BUCKETS; age++) {
+            if (logged[age] == 0) {
+                continue;
+            }
+            long bucket = current - age;
+            int slot = slot(bucket);
+            if (slotBucket[slot] != bucket) {
+                slotBucket[slot] = bucket;
+                counts[slot] = 0;
+            }
+            counts[slot] = Math.max(counts[slot], logged[age]);
+        }
+    }
+
+    synchronized Map<String, Object> getStatus(long nowMillis) {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("dailyLimit", dailyLimit);
+        status.put("monthlyLimit", monthlyLimit);
+        status.put("dailyCount", dailyCount(nowMillis));
+        status.put("monthlyCount", monthlyCount(nowMillis));
+        Map<String, Object> byPriority = new LinkedHashMap<>();
+        for (Priority priority : Priority.values()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("available", available(priority, nowMillis));
+            entry.put("denied", denied[priority.ordinal()]);
+            entry.put("retryAfterSeconds", retryAfter(priority, nowMillis).toSeconds());
+            byPriority.put(priority.name().toLowerCase(), entry);
+        }
+        status.put("priorities", byPriority);
+        return status;
+    }
+
+    private void add(long bucket, long count) {
+        int slot = slot(bucket);
+        if (slotBucket[slot] != bucket) {
+            slotBucket[slot] = bucket;
+            counts[slot] = 0;
+        }
+        counts[slot] += count;
+    }
+
+    /** Sends in the {@code window} buckets ending with {@code bucket}. */
+    private long sum(long bucket, int window) {
+        long total = 0;
+        for (long b = bucket - window + 1; b <= bucket; b++) {
+            int slot = slot(b);
+            if (slotBucket[slot] == b) {
+                total += counts[slot];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Buckets to wait until the sends left in the window ending at {@code bucket}
+     * drop below {@code limit}.
+     */
+    private long waitBuckets(long bucket, int window, long limit) {
+        long excess = sum(bucket, window) - Math.max(0, limit) + 1;
+        if (excess <= 0) {
+            return 0;
+        }
+        long first = bucket - window + 1;
+        for (long b = first; b <= bucket; b++) {
+            int slot = slot(b);
+            if (slotBucket[slot] == b) {
+                excess -= counts[slot];
+                if (excess <= 0) {
+                    // Bucket b leaves the window once the window starts after it.
+                    return b - first + 1;
+                }
+            }
+        }
+        // Nothing to age out (limit at or below zero): wait a whole window.
+        return window;
+    }
+
+    private static int slot(long bucket) {
+        return (int) Math.floorMod(bucket, (long) MONTH_BUCKETS);
+    }
+}
@@ -0,0 +1,18 @@
+package edu.gsu.pantherwatch.pantherwatch.service;
+
+import java.time.Duration;
+
+/** An email was held back because the send quota is spent; it may be retried after {@link #getRetryAfter()}. */
+public class EmailQuotaExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public EmailQuotaExceededException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
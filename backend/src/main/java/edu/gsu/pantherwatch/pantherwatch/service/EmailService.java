@@ -2,29 +2,113 @@ package edu.gsu.pantherwatch.pantherwatch.service;
 
 import com.resend.Resend;
 import com.resend.core.exception.ResendException;
+import com.resend.core.mapper.ResendMapper;
+import com.resend.services.batch.model.CreateBatchEmailsResponse;
 import com.resend.services.emails.model.CreateEmailOptions;
 import com.resend.services.emails.model.CreateEmailResponse;
 import edu.gsu.pantherwatch.pantherwatch.model.EmailLog;
 import edu.gsu.pantherwatch.pantherwatch.repository.EmailLogRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class EmailService {
 
+    /** Resend accepts at most this many messages per batch call. */
+    public static final int MAX_BATCH_SIZE = 100;
+
+    private static final String RESEND_BATCH_URL = "https://api.resend.com/emails/batch";
+    private static final java.time.Duration RESEND_TIMEOUT = java.time.Duration.ofSeconds(30);
+
     private final Resend resend;
+    private final String apiKey;
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(RESEND_TIMEOUT).build();
+    private final ResendMapper resendMapper = new ResendMapper();
     private final EmailLogRepository emailLogRepository;
 
-    public EmailService(@Value("${resend.api.key}") String apiKey, EmailLogRepository emailLogRepository) {
+    // Loaded, CSS-inlined and parsed once at startup; rendering is on the hot path
+    // of every notification.
+    private final EmailTemplate classAvailabilityTemplate;
+    private final EmailTemplate digestTemplate;
+    private final EmailTemplate digestItemTemplate;
+    private final EmailTemplate customTemplate;
+    private final EmailTemplate welcomeTemplate;
+    private final EmailTemplate goodbyeTemplate;
+
+    // Every send spends from this first; see EmailQuota for the priorities.
+    private final EmailQuota quota;
+
+    private final AvailabilityCooldownIndex cooldownIndex =
+            new AvailabilityCooldownIndex(CLASS_AVAILABILITY_COOLDOWN, java.time.Duration.ofMinutes(10));
+
+    private final LongAdder batchCalls = new LongAdder();
+    private final LongAdder batchMessages = new LongAdder();
+    private final LongAdder batchFailures = new LongAdder();
+    private final LongAdder batchFailedMessages = new LongAdder();
+    private final LongAdder batchLatencyNanos = new LongAdder();
+    private final AtomicLong maxBatchLatencyNanos = new AtomicLong();
+
+    /**
+     * One class-availability email for {@link #sendClassAvailabilityNotifications}.
+     * {@code idempotencyKey} is its outbox row's key, or null.
+     */
+    public record ClassAvailabilityEmail(String toEmail, String userName, String courseTitle,
+                                         String courseNumber, String subject, String crn, String term,
+                                         String idempotencyKey) {
+    }
+
+    /** One admin message for {@link #sendCustomEmails}. */
+    public record CustomEmail(String toEmail, String userName, String subject, String message) {
+    }
+
+    public EmailService(@Value("${resend.api.key}") String apiKey, EmailLogRepository emailLogRepository,
+                        @Value("${pantherwatch.email.quota.daily:100}") int dailyLimit,
+                        @Value("${pantherwatch.email.quota.monthly:3000}") int monthlyLimit,
+                        @Value("${pantherwatch.email.quota.admin-reserve:0.1}") double adminReserve,
+                        @Value("${pantherwatch.email.quota.account-reserve:0.25}") double accountReserve) {
         this.resend = new Resend(apiKey);
+        this.apiKey = apiKey;
         this.emailLogRepository = emailLogRepository;
+        this.quota = new EmailQuota(dailyLimit, monthlyLimit, 0, adminReserve, accountReserve);
+        this.classAvailabilityTemplate = compileTemplate("class-availability");
+        this.digestTemplate = EmailTemplate.compile("class-availability-digest",
+                loadEmailTemplateWithCSS("class-availability-digest.html", "class-availability.css"));
+        this.digestItemTemplate = EmailTemplate.compile("class-availability-digest-item",
+                loadEmailTemplate("class-availability-digest-item.html"));
+        this.customTemplate = compileTemplate("custom");
+        this.welcomeTemplate = compileTemplate("welcome");
+        this.goodbyeTemplate = compileTemplate("account-goodbye");
+    }
+
+    private EmailTemplate compileTemplate(String name) {
+        return EmailTemplate.compile(name, loadEmailTemplateWithCSS(name + ".html", name + ".css"));
     }
 
     private String loadEmailTemplate(String templateName) {
@@ -55,23 +139,20 @@ public class EmailService {
     }
 
     private static final java.time.Duration CLASS_AVAILABILITY_COOLDOWN = java.time.Duration.ofHours(6);
+    /** Logs must cover the monthly quota window, or a restart would under-count it. */
+    private static final java.time.Duration LOG_RETENTION = EmailQuota.MONTH.plusDays(1);
+    /** How CRNs appear in availability subjects; older log rows only have it there. */
+    private static final Pattern SUBJECT_CRN = Pattern.compile("\\(CRN (\\w+)\\)");
 
     public void sendClassAvailabilityNotification(String toEmail, String userName, String courseTitle,
                                                 String courseNumber, String subject, String crn, String term) {
-        // Per-(recipient, CRN) cooldown to stop the 5-minute scheduler from re-spamming
-        // the same user every cycle while a course remains open.
-        LocalDateTime cooldownCutoff = LocalDateTime.now().minus(CLASS_AVAILABILITY_COOLDOWN);
-        String subjectMarker = "%CRN " + crn + "%";
-        String emailSubject = "Class Spot Available: " + subject + " " + courseNumber + " (CRN " + crn + ")";
-
-        boolean alreadySent = emailLogRepository
-                .findRecentEmailByTypeAndEmailAndSubject(toEmail, EmailLog.EmailType.CLASS_AVAILABILITY, subjectMarker, cooldownCutoff)
-                .isPresent();
-        if (alreadySent) {
+        String emailSubject = classAvailabilitySubject(subject, courseNumber, crn);
+        if (isWithinAvailabilityCooldown(toEmail, term, crn)) {
             log.info("Skipping availability email to {} for CRN {} (within {} cooldown)", toEmail, crn, CLASS_AVAILABILITY_COOLDOWN);
             return;
         }
 
+        long acquiredAt = acquireOrThrow(EmailQuota.Priority.AVAILABILITY);
         try {
             String htmlContent = buildClassAvailabilityEmail(userName, courseTitle, courseNumber, subject, crn, term);
 
@@ -85,15 +166,277 @@ public class EmailService {
             CreateEmailResponse data = resend.emails().send(params);
             log.info("Email sent successfully to {} for course {} with ID: {}", toEmail, crn, data.getId());
 
-            logEmailSent(toEmail, EmailLog.EmailType.CLASS_AVAILABILITY, emailSubject);
+            logAvailabilityEmailsSent(List.of(availabilityLog(toEmail, emailSubject, crn, term, LocalDateTime.now())));
 
         } catch (ResendException e) {
+            quota.release(1, acquiredAt);
             log.error("Failed to send email to {} for course {}: {}", toEmail, crn, e.getMessage(), e);
             throw new RuntimeException("Failed to send email notification", e);
         }
     }
 
+    /**
+     * Sends class-availability emails through Resend's batch API, up to
+     * {@value #MAX_BATCH_SIZE} per call, so a mass opening costs a handful of
+     * requests instead of one per watcher. Openings for the same recipient are
+     * coalesced into one digest email listing every section, which costs one call
+     * slot and one quota token. Recipients still within the per-CRN cooldown are
+     * skipped; emails past the remaining quota are not sent.
+     *
+     * @return one entry per email, in order: null if it was sent or skipped, an
+     *         {@link EmailQuotaExceededException} if the quota held it back,
+     *         otherwise the error of the batch call that carried it
+     */
+    public List<Exception> sendClassAvailabilityNotifications(List<ClassAvailabilityEmail> emails) {
+        List<Exception> results = new ArrayList<>(Collections.nCopies(emails.size(), null));
+        long now = System.currentTimeMillis();
+        loadCooldownMisses(emails.stream()
+                .filter(email -> !cooldownIndex.contains(email.toEmail(), email.term(), email.crn(), now))
+                .map(ClassAvailabilityEmail::toEmail)
+                .toList());
+        Map<String, List<ClassAvailabilityEmail>> byRecipient = new LinkedHashMap<>();
+        Map<String, List<Integer>> indexesByRecipient = new LinkedHashMap<>();
+        int pending = 0;
+        for (int i = 0; i < emails.size(); i++) {
+            ClassAvailabilityEmail email = emails.get(i);
+            if (cooldownIndex.contains(email.toEmail(), email.term(), email.crn(), System.currentTimeMillis())) {
+                log.info("Skipping availability email to {} for CRN {} (within {} cooldown)",
+                        email.toEmail(), email.crn(), CLASS_AVAILABILITY_COOLDOWN);
+                continue;
+            }
+            String recipient = email.toEmail().toLowerCase();
+            byRecipient.computeIfAbsent(recipient, r -> new ArrayList<>()).add(email);
+            indexesByRecipient.computeIfAbsent(recipient, r -> new ArrayList<>()).add(i);
+            pending++;
+        }
+
+        List<List<ClassAvailabilityEmail>> groups = new ArrayList<>(byRecipient.values());
+        List<List<Integer>> groupIndexes = new ArrayList<>(indexesByRecipient.values());
+        List<CreateEmailOptions> messages = new ArrayList<>(groups.size());
+        List<String> messageKeys = new ArrayList<>(groups.size());
+        for (List<ClassAvailabilityEmail> group : groups) {
+            messages.add(group.size() == 1 ? classAvailabilityMessage(group.get(0)) : digestMessage(group));
+            messageKeys.add(group.stream().anyMatch(email -> email.idempotencyKey() == null) ? null
+                    : group.stream().map(ClassAvailabilityEmail::idempotencyKey).collect(Collectors.joining(",")));
+        }
+
+        List<Exception> sent = sendWithinQuota(EmailQuota.Priority.AVAILABILITY, messages, messageKeys);
+        LocalDateTime sentAt = LocalDateTime.now();
+        List<EmailLog> logs = new ArrayList<>();
+        for (int j = 0; j < sent.size(); j++) {
+            List<ClassAvailabilityEmail> group = groups.get(j);
+            for (int k = 0; k < group.size(); k++) {
+                results.set(groupIndexes.get(j).get(k), sent.get(j));
+                if (sent.get(j) == null) {
+                    // One row per section for the cooldown; a digest's rows share sentAt.
+                    logs.add(availabilityLog(group.get(k).toEmail(), messages.get(j).getSubject(),
+                            group.get(k).crn(), group.get(k).term(), sentAt));
+                }
+            }
+        }
+        if (groups.size() < pending) {
+            log.info("Coalesced {} availability notification(s) into {} email(s)", pending, groups.size());
+        }
+        logAvailabilityEmailsSent(logs);
+        return results;
+    }
+
+    private CreateEmailOptions classAvailabilityMessage(ClassAvailabilityEmail email) {
+        return CreateEmailOptions.builder()
+                .from("PantherWatch <no-reply@class.pantherwatch.app>")
+                .to(email.toEmail())
+                .subject(classAvailabilitySubject(email.subject(), email.courseNumber(), email.crn()))
+                .html(buildClassAvailabilityEmail(email.userName(), email.courseTitle(), email.courseNumber(),
+                        email.subject(), email.crn(), email.term()))
+                .build();
+    }
+
+    /** One email listing every section in {@code group}, all to the same recipient. */
+    private CreateEmailOptions digestMessage(List<ClassAvailabilityEmail> group) {
+        StringBuilder items = new StringBuilder();
+        for (ClassAvailabilityEmail email : group) {
+            items.append(digestItemTemplate.render(email.courseTitle(), email.subject(), email.courseNumber(),
+                    email.crn(), email.term()));
+        }
+        return CreateEmailOptions.builder()
+                .from("PantherWatch <no-reply@class.pantherwatch.app>")
+                .to(group.get(0).toEmail())
+                .subject(digestSubject(group))
+                .html(digestTemplate.render(group.size(), group.get(0).userName(), items))
+                .build();
+    }
+
+    /** Sends admin messages through the batch API; results as for {@link #sendClassAvailabilityNotifications}. */
+    public List<Exception> sendCustomEmails(List<CustomEmail> emails) {
+        List<CreateEmailOptions> messages = new ArrayList<>(emails.size());
+        for (CustomEmail email : emails) {
+            messages.add(CreateEmailOptions.builder()
+                    .from("PantherWatch <no-reply@class.pantherwatch.app>")
+                    .to(email.toEmail())
+                    .subject(email.subject())
+                    .html(buildCustomEmail(email.userName(), email.message()))
+                    .build());
+        }
+        List<Exception> results = sendWithinQuota(EmailQuota.Priority.ADMIN, messages,
+                Collections.nCopies(messages.size(), null));
+        LocalDateTime sentAt = LocalDateTime.now();
+        List<EmailLog> logs = new ArrayList<>();
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                logs.add(EmailLog.builder()
+                        .email(emails.get(i).toEmail())
+                        .emailType(EmailLog.EmailType.ADMIN)
+                        .subject(emails.get(i).subject())
+                        .sentAt(sentAt)
+                        .build());
+            }
+        }
+        try {
+            // Logged so other replicas' quota syncs count them.
+            emailLogRepository.saveAll(logs);
+        } catch (Exception e) {
+            log.warn("Failed to log {} sent admin emails: {}", logs.size(), e.getMessage());
+        }
+        return results;
+    }
+
+    /**
+     * Sends as many of {@code messages}, in order, as {@code priority} has quota
+     * for; the rest get an {@link EmailQuotaExceededException}. Tokens of failed
+     * batch calls are handed back. {@code keys} are as for {@link #sendInBatches}.
+     */
+    private List<Exception> sendWithinQuota(EmailQuota.Priority priority, List<CreateEmailOptions> messages,
+                                            List<String> keys) {
+        long now = System.currentTimeMillis();
+        int granted = quota.tryAcquire(priority, messages.size(), now);
+        List<Exception> results = new ArrayList<>(sendInBatches(messages.subList(0, granted),
+                keys.subList(0, granted)));
+        quota.release((int) results.stream().filter(java.util.Objects::nonNull).count(), now);
+        if (granted < messages.size()) {
+            log.warn("Email quota reached: holding back {} of {} {} email(s)",
+                    messages.size() - granted, messages.size(), priority.name().toLowerCase());
+            EmailQuotaExceededException denied = quotaExceeded(priority, now);
+            for (int i = granted; i < messages.size(); i++) {
+                results.add(denied);
+            }
+        }
+        return results;
+    }
+
+    /** Spends one token at {@code priority}; returns when, for {@link EmailQuota#release}. */
+    private long acquireOrThrow(EmailQuota.Priority priority) {
+        long now = System.currentTimeMillis();
+        if (quota.tryAcquire(priority, 1, now) == 0) {
+            throw quotaExceeded(priority, now);
+        }
+        return now;
+    }
+
+    private EmailQuotaExceededException quotaExceeded(EmailQuota.Priority priority, long now) {
+        java.time.Duration retryAfter = quota.retryAfter(priority, now);
+        return new EmailQuotaExceededException(
+                "Email quota reached; retry in " + retryAfter.toMinutes() + " min", retryAfter);
+    }
+
+    /**
+     * Sends {@code messages} in chunks of {@value #MAX_BATCH_SIZE}, one call each. A
+     * batch call succeeds or fails as a whole, so every message of a failed call
+     * gets that call's error.
+     *
+     * {@code keys} holds each message's idempotency key, or null. A chunk whose
+     * messages all have one is sent with an {@code Idempotency-Key} derived from
+     * them, so repeating the same chunk, e.g. after a worker died before recording
+     * it sent, is answered by Resend without sending again.
+     */
+    private List<Exception> sendInBatches(List<CreateEmailOptions> messages, List<String> keys) {
+        List<Exception> results = new ArrayList<>(messages.size());
+        for (int from = 0; from < messages.size(); from += MAX_BATCH_SIZE) {
+            int to = Math.min(messages.size(), from + MAX_BATCH_SIZE);
+            List<CreateEmailOptions> chunk = messages.subList(from, to);
+            long started = System.nanoTime();
+            Exception error = null;
+            try {
+                CreateBatchEmailsResponse response = sendBatch(chunk, batchIdempotencyKey(keys.subList(from, to)));
+                int accepted = response.getData() != null ? response.getData().size() : 0;
+                log.info("Batch of {} emails sent ({} accepted) in {} ms",
+                        chunk.size(), accepted, (System.nanoTime() - started) / 1_000_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                error = e;
+                batchFailures.increment();
+                batchFailedMessages.add(chunk.size());
+                log.error("Batch of {} emails interrupted", chunk.size());
+            } catch (ResendException | IOException | RuntimeException e) {
+                error = e;
+                batchFailures.increment();
+                batchFailedMessages.add(chunk.size());
+                log.error("Batch of {} emails failed: {}", chunk.size(), e.getMessage(), e);
+            }
+            long latency = System.nanoTime() - started;
+            batchCalls.increment();
+            batchMessages.add(chunk.size());
+            batchLatencyNanos.add(latency);
+            maxBatchLatencyNanos.accumulateAndGet(latency, Math::max);
+            for (int i = 0; i < chunk.size(); i++) {
+                results.add(error);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * One {@code POST /emails/batch}. With a key it is made directly, since
+     * resend-java 3.0.0 cannot set request headers; Resend answers a repeat of the
+     * key within 24 hours with the first call's result.
+     */
+    private CreateBatchEmailsResponse sendBatch(List<CreateEmailOptions> chunk, String idempotencyKey)
+            throws ResendException, IOException, InterruptedException {
+        if (idempotencyKey == null) {
+            return resend.batch().send(new ArrayList<>(chunk));
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(RESEND_BATCH_URL))
+                .timeout(RESEND_TIMEOUT)
+                .header("Authorization", "Bearer " + apiKey)
+                .header("Content-Type", "application/json")
+                .header("Idempotency-Key", idempotencyKey)
+                .POST(HttpRequest.BodyPublishers.ofString(resendMapper.writeValue(chunk)))
+                .build();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Resend batch returned HTTP " + response.statusCode() + ": " + response.body());
+        }
+        return resendMapper.readValue(response.body(), CreateBatchEmailsResponse.class);
+    }
+
+    /** A chunk's key: a digest of its messages' keys, in order; null unless every message has one. */
+    static String batchIdempotencyKey(List<String> keys) {
+        if (keys.isEmpty() || keys.contains(null)) {
+            return null;
+        }
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return "availability-batch:" + HexFormat.of().formatHex(
+                    sha256.digest(String.join("\n", keys).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Batch-send counters: calls, messages, failures and latency. */
+    public Map<String, Object> getBatchStats() {
+        long calls = batchCalls.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("calls", calls);
+        stats.put("messages", batchMessages.sum());
+        stats.put("failedCalls", batchFailures.sum());
+        stats.put("failedMessages", batchFailedMessages.sum());
+        stats.put("avgLatencyMs", calls == 0 ? 0 : batchLatencyNanos.sum() / calls / 1_000_000);
+        stats.put("maxLatencyMs", maxBatchLatencyNanos.get() / 1_000_000);
+        return stats;
+    }
+
     public void sendCustomEmail(String toEmail, String userName, String subject, String message) {
+        long acquiredAt = acquireOrThrow(EmailQuota.Priority.ADMIN);
         try {
             String htmlContent = buildCustomEmail(userName, message);
             
@@ -106,13 +449,141 @@ public class EmailService {
 
             CreateEmailResponse data = resend.emails().send(params);
             log.info("Custom email sent successfully to {} with ID: {}", toEmail, data.getId());
+            logEmailSent(toEmail, EmailLog.EmailType.ADMIN, subject);
             
         } catch (ResendException e) {
+            quota.release(1, acquiredAt);
             log.error("Failed to send custom email to {}: {}", toEmail, e.getMessage());
             throw new RuntimeException("Failed to send custom email: " + e.getMessage(), e);
         }
     }
 
+    private static String classAvailabilitySubject(String subject, String courseNumber, String crn) {
+        return "Class Spot Available: " + subject + " " + courseNumber + " (CRN " + crn + ")";
+    }
+
+    /** Names up to three of the courses, e.g. "Class Spots Available: CSC 1301, MATH 2211 and 2 more". */
+    static String digestSubject(List<ClassAvailabilityEmail> group) {
+        List<String> courses = group.stream()
+                .map(email -> email.subject() + " " + email.courseNumber())
+                .distinct()
+                .toList();
+        String listed = String.join(", ", courses.subList(0, Math.min(3, courses.size())));
+        int more = courses.size() - Math.min(3, courses.size());
+        return "Class Spots Available: " + listed + (more > 0 ? " and " + more + " more" : "");
+    }
+
+    /**
+     * Per-(recipient, term, CRN) cooldown, so a course that stays open, or re-opens
+     * within hours, doesn't email the same user over and over. Answered from
+     * {@link AvailabilityCooldownIndex}; recipients it has no entry for are looked
+     * up in the email log by the indexed recipient/type columns (another replica
+     * may have sent it).
+     */
+    private boolean isWithinAvailabilityCooldown(String toEmail, String term, String crn) {
+        if (cooldownIndex.contains(toEmail, term, crn, System.currentTimeMillis())) {
+            return true;
+        }
+        loadCooldownMisses(List.of(toEmail));
+        return cooldownIndex.contains(toEmail, term, crn, System.currentTimeMillis());
+    }
+
+    /** Pulls recent availability emails of {@code recipients} from the log into the index, in one query. */
+    private void loadCooldownMisses(List<String> recipients) {
+        if (recipients.isEmpty()) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(CLASS_AVAILABILITY_COOLDOWN);
+        for (EmailLog sent : emailLogRepository.findRecentByTypeAndEmailIn(
+                new LinkedHashSet<>(recipients), EmailLog.EmailType.CLASS_AVAILABILITY, cutoff)) {
+            rememberAvailabilityEmail(sent);
+        }
+    }
+
+    /** Fills the cooldown index from the last cooldown's worth of email logs. */
+    @PostConstruct
+    void warmCooldownIndex() {
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minus(CLASS_AVAILABILITY_COOLDOWN);
+            List<EmailLog> recent = emailLogRepository.findRecentByType(EmailLog.EmailType.CLASS_AVAILABILITY, cutoff);
+            recent.forEach(this::rememberAvailabilityEmail);
+            log.info("Availability cooldown index warmed with {} recent email(s)", cooldownIndex.size());
+        } catch (Exception e) {
+            // Misses fall back to the email log, so this only costs queries.
+            log.warn("Could not warm availability cooldown index: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelay = 600_000)
+    public void evictExpiredCooldowns() {
+        cooldownIndex.evictExpired(System.currentTimeMillis());
+    }
+
+    /**
+     * Seeds the quota from the last month of email logs at startup, then keeps
+     * folding them in, so sends by other replicas count against this one's budget.
+     */
+    @PostConstruct
+    @Scheduled(fixedDelay = 300_000, initialDelay = 300_000)
+    public void syncQuotaWithEmailLog() {
+        try {
+            long now = System.currentTimeMillis();
+            List<Long> sentAt = emailLogRepository.findSentAtSince(LocalDateTime.now().minus(EmailQuota.MONTH)).stream()
+                    .map(time -> time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+                    .toList();
+            quota.merge(sentAt, now);
+            log.debug("Email quota synced: {} sent today, {} this month", quota.dailyCount(now), quota.monthlyCount(now));
+        } catch (Exception e) {
+            // Only sends this process makes are counted until the next sync.
+            log.warn("Could not sync email quota with the email log: {}", e.getMessage());
+        }
+    }
+
+    /** Availability notifications the quota allows right now. */
+    public long availableNotificationQuota() {
+        return quota.available(EmailQuota.Priority.AVAILABILITY, System.currentTimeMillis());
+    }
+
+    /** Quota limits, live counts, and per-priority headroom and denials. */
+    public Map<String, Object> getQuotaStatus() {
+        return quota.getStatus(System.currentTimeMillis());
+    }
+
+    private void rememberAvailabilityEmail(EmailLog sent) {
+        String crn = sent.getCrn();
+        if (crn == null && sent.getSubject() != null) {
+            Matcher matcher = SUBJECT_CRN.matcher(sent.getSubject());
+            crn = matcher.find() ? matcher.group(1) : null;
+        }
+        if (crn != null) {
+            cooldownIndex.record(sent.getEmail(), sent.getTerm(), crn,
+                    sent.getSentAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+    }
+
+    private static EmailLog availabilityLog(String toEmail, String subject, String crn, String term,
+                                            LocalDateTime sentAt) {
+        return EmailLog.builder()
+                .email(toEmail)
+                .emailType(EmailLog.EmailType.CLASS_AVAILABILITY)
+                .subject(subject)
+                .crn(crn)
+                .term(term)
+                .sentAt(sentAt)
+                .build();
+    }
+
+    /** Records sent availability emails in the cooldown index and the email log. */
+    private void logAvailabilityEmailsSent(List<EmailLog> logs) {
+        logs.forEach(this::rememberAvailabilityEmail);
+        try {
+            emailLogRepository.saveAll(logs);
+        } catch (Exception e) {
+            // Don't fail the send: the emails were already sent.
+            log.warn("Failed to log {} sent availability emails: {}", logs.size(), e.getMessage());
+        }
+    }
+
     /**
      * Checks if an email of the specified type was recently sent to the given email address
      * @param email The recipient email address
@@ -152,6 +623,12 @@ public class EmailService {
             log.info("Skipping welcome email to {} - already sent within the last week", toEmail);
             return;
         }
+        // Account mail is the first to go when the quota runs low.
+        long acquiredAt = System.currentTimeMillis();
+        if (quota.tryAcquire(EmailQuota.Priority.ACCOUNT, 1, acquiredAt) == 0) {
+            log.warn("Skipping welcome email to {} - email quota reserved for class notifications", toEmail);
+            return;
+        }
 
         try {
             String htmlContent = buildWelcomeEmail(firstName);
@@ -171,6 +648,7 @@ public class EmailService {
             logEmailSent(toEmail, EmailLog.EmailType.WELCOME, subject);
             
         } catch (ResendException e) {
+            quota.release(1, acquiredAt);
             log.error("Failed to send welcome email to {}: {}", toEmail, e.getMessage(), e);
             log.warn("User registration will continue despite welcome email failure");
         }
@@ -182,6 +660,11 @@ public class EmailService {
             log.info("Skipping goodbye email to {} - already sent within the last week", toEmail);
             return;
         }
+        long acquiredAt = System.currentTimeMillis();
+        if (quota.tryAcquire(EmailQuota.Priority.ACCOUNT, 1, acquiredAt) == 0) {
+            log.warn("Skipping goodbye email to {} - email quota reserved for class notifications", toEmail);
+            return;
+        }
 
         try {
             String htmlContent = buildAccountDeletionEmail(firstName);
@@ -201,6 +684,7 @@ public class EmailService {
             logEmailSent(toEmail, EmailLog.EmailType.GOODBYE, subject);
 
         } catch (ResendException e) {
+            quota.release(1, acquiredAt);
             log.error("Failed to send account deletion email to {}: {}", toEmail, e.getMessage(), e);
             log.warn("Account deletion completed but farewell email could not be delivered");
         }
@@ -208,49 +692,44 @@ public class EmailService {
 
     private String buildClassAvailabilityEmail(String userName, String courseTitle, String courseNumber, 
                                              String subject, String crn, String term) {
-        String htmlTemplate = loadEmailTemplateWithCSS("class-availability.html", "class-availability.css");
-        return String.format(htmlTemplate, userName, courseTitle, subject, courseNumber, crn, term, crn);
+        return classAvailabilityTemplate.render(userName, courseTitle, subject, courseNumber, crn, term, crn);
     }
 
     private String buildCustomEmail(String userName, String message) {
-        String htmlTemplate = loadEmailTemplateWithCSS("custom.html", "custom.css");
-        return String.format(htmlTemplate, message);
+        return customTemplate.render(message);
     }
 
     private String buildWelcomeEmail(String firstName) {
-        String htmlTemplate = loadEmailTemplateWithCSS("welcome.html", "welcome.css");
-        return String.format(htmlTemplate, firstName);
+        return welcomeTemplate.render(firstName);
     }
 
     private String buildAccountDeletionEmail(String firstName) {
         String nameForTemplate = firstName != null && !firstName.isBlank() ? firstName : "there";
-        String htmlTemplate = loadEmailTemplateWithCSS("account-goodbye.html", "account-goodbye.css");
-        return String.format(htmlTemplate, nameForTemplate);
+        return goodbyeTemplate.render(nameForTemplate);
     }
 
     /**
      * Get email usage statistics for monitoring quota
-     * @return Map containing daily and monthly email counts
+     * @return Map containing daily and monthly email counts, from the live quota counters
      */
     public java.util.Map<String, Long> getEmailUsageStats() {
-        LocalDateTime oneDayAgo = LocalDateTime.now().minusDays(1);
-        LocalDateTime oneMonthAgo = LocalDateTime.now().minusMonths(1);
-        
-        long dailyCount = emailLogRepository.countEmailsSentSince(oneDayAgo);
-        long monthlyCount = emailLogRepository.countEmailsSentSince(oneMonthAgo);
-        
+        long now = System.currentTimeMillis();
+        long dailyCount = quota.dailyCount(now);
+        long monthlyCount = quota.monthlyCount(now);
+
         java.util.Map<String, Long> stats = new java.util.HashMap<>();
         stats.put("dailyCount", dailyCount);
         stats.put("monthlyCount", monthlyCount);
-        stats.put("dailyRemaining", Math.max(0, 100 - dailyCount));
-        stats.put("monthlyRemaining", Math.max(0, 3000 - monthlyCount));
-        
+        stats.put("dailyRemaining", Math.max(0, quota.dailyLimit() - dailyCount));
+        stats.put("monthlyRemaining", Math.max(0, quota.monthlyLimit() - monthlyCount));
+
         return stats;
     }
 
     /**
-     * Scheduled cleanup task to remove email logs older than a week
+     * Scheduled cleanup task to remove email logs older than the monthly quota window
      * Runs daily at 2:00 AM to clean up old logs that are no longer needed for spam prevention
+     * or for re-seeding the quota after a restart
      */
     @Scheduled(cron = "0 0 2 * * *")
     public void cleanupOldEmailLogs() {
@@ -271,11 +750,11 @@ public class EmailService {
      */
     private int performCleanup() {
         try {
-            LocalDateTime oneWeekAgo = LocalDateTime.now().minusWeeks(1);
-            int deletedCount = emailLogRepository.deleteEmailLogsOlderThan(oneWeekAgo);
+            LocalDateTime cutoff = LocalDateTime.now().minus(LOG_RETENTION);
+            int deletedCount = emailLogRepository.deleteEmailLogsOlderThan(cutoff);
             
             if (deletedCount > 0) {
-                log.info("Cleaned up {} old email logs older than one week", deletedCount);
+                log.info("Cleaned up {} email logs older than {} days", deletedCount, LOG_RETENTION.toDays());
             } else {
                 log.debug("No old email logs to clean up");
             }
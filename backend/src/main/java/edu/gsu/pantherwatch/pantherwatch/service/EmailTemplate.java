@@ -0,0 +1,83 @@
+package edu.gsu.pantherwatch.pantherwatch.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An email body parsed once into literal text and {@code %s} slots.
+ *
+ * Templates keep the {@link String#format} syntax they were written in ({@code %s}
+ * for a value, {@code %%} for a literal percent sign), but rendering just copies
+ * the literals and values into a buffer sized up front, with no classpath reads,
+ * CSS inlining or format-string parsing per email. Values render as
+ * {@link String#valueOf} would, matching {@code %s}. Immutable and thread-safe.
+ */
+final class EmailTemplate {
+
+    private final String name;
+    private final String[] literals;
+    private final int literalLength;
+
+    private EmailTemplate(String name, String[] literals) {
+        this.name = name;
+        this.literals = literals;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Parses {@code source}, which may only contain {@code %s} and {@code %%}
+     * specifiers; anything else is rejected here rather than at send time.
+     */
+    static EmailTemplate compile(String name, String source) {
+        List<String> literals = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < source.length(); i++) {
+            char c = source.charAt(i);
+            if (c != '%') {
+                current.append(c);
+                continue;
+            }
+            char next = i + 1 < source.length() ? source.charAt(i + 1) : 0;
+            if (next == '%') {
+                current.append('%');
+            } else if (next == 's') {
+                literals.add(current.toString());
+                current.setLength(0);
+            } else {
+                throw new IllegalArgumentException(
+                        "Unsupported format specifier '%" + (next == 0 ? "" : next) + "' in email template " + name);
+            }
+            i++;
+        }
+        literals.add(current.toString());
+        return new EmailTemplate(name, literals.toArray(new String[0]));
+    }
+
+    int slots() {
+        return literals.length - 1;
+    }
+
+    /** Fills the slots in order; exactly {@link #slots()} values are required. */
+    String render(Object... values) {
+        if (values.length != slots()) {
+            throw new IllegalArgumentException(
+                    "Email template " + name + " takes " + slots() + " values, got " + values.length);
+        }
+        String[] text = new String[values.length];
+        int length = literalLength;
+        for (int i = 0; i < values.length; i++) {
+            text[i] = String.valueOf(values[i]);
+            length += text[i].length();
+        }
+        StringBuilder out = new StringBuilder(length);
+        out.append(literals[0]);
+        for (int i = 0; i < text.length; i++) {
+            out.append(text[i]).append(literals[i + 1]);
+        }
+        return out.toString();
+    }
+}
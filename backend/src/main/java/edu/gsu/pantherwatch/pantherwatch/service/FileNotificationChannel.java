@@ -0,0 +1,109 @@
+package edu.gsu.pantherwatch.pantherwatch.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.gsu.pantherwatch.pantherwatch.model.NotificationOutbox;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stand-in transport for local runs and offline load tests: appends each
+ * notification as a JSON line to {@code pantherwatch.notifications.file.path}
+ * instead of contacting anyone. {@code latency-ms} and {@code failure-rate}
+ * (0-1, per batch) imitate a real provider, so retries, backoff and worker
+ * sizing can be exercised without sending mail. Pair it with
+ * {@code pantherwatch.notifications.email.enabled=false}.
+ */
+@Component
+public class FileNotificationChannel implements NotificationChannel {
+
+    public static final String NAME = "file";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final boolean enabled;
+    private final Path path;
+    private final long latencyMillis;
+    private final double failureRate;
+    private final int concurrency;
+    private final int batchSize;
+    private final int maxAttempts;
+
+    public FileNotificationChannel(
+            @Value("${pantherwatch.notifications.file.enabled:false}") boolean enabled,
+            @Value("${pantherwatch.notifications.file.path:notifications.jsonl}") String path,
+            @Value("${pantherwatch.notifications.file.latency-ms:0}") long latencyMillis,
+            @Value("${pantherwatch.notifications.file.failure-rate:0}") double failureRate,
+            @Value("${pantherwatch.notifications.file.concurrency:4}") int concurrency,
+            @Value("${pantherwatch.notifications.file.batch-size:100}") int batchSize,
+            @Value("${pantherwatch.notifications.file.max-attempts:8}") int maxAttempts) {
+        this.enabled = enabled;
+        this.path = Path.of(path);
+        this.latencyMillis = Math.max(0, latencyMillis);
+        this.failureRate = Math.max(0, Math.min(1, failureRate));
+        this.concurrency = Math.max(1, concurrency);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public int concurrency() {
+        return concurrency;
+    }
+
+    @Override
+    public int batchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public int maxAttempts() {
+        return maxAttempts;
+    }
+
+    @Override
+    public List<Exception> deliver(List<NotificationOutbox> batch) {
+        try {
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis);
+            }
+            if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+                return Collections.nCopies(batch.size(), new IOException("Simulated delivery failure"));
+            }
+            StringBuilder lines = new StringBuilder();
+            for (Map<String, Object> item : WebhookNotificationChannel.payload(batch)) {
+                lines.append(mapper.writeValueAsString(item)).append('\n');
+            }
+            append(lines.toString());
+            return Collections.nCopies(batch.size(), null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Collections.nCopies(batch.size(), e);
+        } catch (IOException e) {
+            return Collections.nCopies(batch.size(), e);
+        }
+    }
+
+    private synchronized void append(String lines) throws IOException {
+        Files.writeString(path, lines, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
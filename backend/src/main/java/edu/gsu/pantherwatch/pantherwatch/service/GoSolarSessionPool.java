@@ -0,0 +1,359 @@
+package edu.gsu.pantherwatch.pantherwatch.service;
+
+import edu.gsu.pantherwatch.pantherwatch.config.WebClientConfig;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Pool of pre-declared GoSolar sessions, per term, leased to course searches.
+ *
+ * A course search needs a term declaration first, and the declaration only pins
+ * the search to the right F5 node if it arrived on a fresh connection (see
+ * {@link WebClientConfig}). Rather than paying that fresh connection twice per
+ * search, each pooled session owns a connection provider capped at ONE keep-alive
+ * connection: the declaration opens it fresh (so the F5 issues the BIGipServer
+ * cookie), and every later search on the session reuses that same connection and
+ * therefore reaches the same node. Should the connection drop, the replacement
+ * still carries the session's BIGipServer cookie, which the F5 routes by.
+ *
+ * A session is leased to one search at a time. On release its search form is
+ * reset (Banner otherwise keeps serving the previous search's results), under
+ * the same GoSolar concurrency cap as searches, and it goes back to the pool; a search answering {@code success:true,data:null} means
+ * the node no longer knows the session, so the session is evicted instead.
+ * Sessions are retired after {@code maxAge}, {@code maxIdle} or {@code maxUses},
+ * and terms searched recently are kept topped up with declared sessions.
+ */
+@Component
+@Slf4j
+public class GoSolarSessionPool {
+
+    /** Declares {@code term} over {@code client}, emitting the Cookie header to replay. */
+    @FunctionalInterface
+    public interface TermDeclaration {
+        Mono<String> declare(WebClient client, String term);
+    }
+
+    /** Runs a GoSolar call the pool makes on its own, e.g. under the GoSolar concurrency cap. */
+    @FunctionalInterface
+    public interface Upstream {
+        Mono<Void> call(Supplier<Mono<Void>> call);
+    }
+
+    private static final String BIG_IP_COOKIE_PREFIX = "BIGipServer";
+    private static final String SESSION_COOKIE_PREFIX = "JSESSIONID=";
+    private static final Duration RESPONSE_TIMEOUT = Duration.ofSeconds(15);
+    private static final Duration RESET_TIMEOUT = Duration.ofSeconds(10);
+    /** Terms searched within this window are kept warm by {@link #maintain}. */
+    private static final Duration WARM_WINDOW = Duration.ofMinutes(10);
+
+    private final String baseUrl;
+    private final boolean enabled;
+    private final int maxPerTerm;
+    private final int minIdlePerTerm;
+    private final Duration maxAge;
+    private final Duration maxIdle;
+    private final int maxUses;
+
+    private final ConcurrentHashMap<String, TermPool> pools = new ConcurrentHashMap<>();
+    private final AtomicLong sessionIds = new AtomicLong();
+
+    private final LongAdder created = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder evictedNoData = new LongAdder();
+    private final LongAdder evictedExpired = new LongAdder();
+    private final LongAdder rejectedUnpinned = new LongAdder();
+
+    @Autowired
+    public GoSolarSessionPool(
+            @Value("${pantherwatch.api.base-url}") String baseUrl,
+            @Value("${pantherwatch.gosolar.session-pool.enabled:true}") boolean enabled,
+            @Value("${pantherwatch.gosolar.session-pool.max-per-term:8}") int maxPerTerm,
+            @Value("${pantherwatch.gosolar.session-pool.min-idle-per-term:1}") int minIdlePerTerm,
+            @Value("${pantherwatch.gosolar.session-pool.max-age-seconds:900}") long maxAgeSeconds,
+            @Value("${pantherwatch.gosolar.session-pool.max-idle-seconds:240}") long maxIdleSeconds,
+            @Value("${pantherwatch.gosolar.session-pool.max-uses:200}") int maxUses) {
+        this.baseUrl = baseUrl;
+        this.enabled = enabled;
+        this.maxPerTerm = maxPerTerm;
+        this.minIdlePerTerm = minIdlePerTerm;
+        this.maxAge = Duration.ofSeconds(maxAgeSeconds);
+        this.maxIdle = Duration.ofSeconds(maxIdleSeconds);
+        this.maxUses = maxUses;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Leases an idle declared session for {@code term}, or declares a new one.
+     * The caller must {@link #release} it once; further releases are ignored.
+     */
+    public Mono<Session> lease(String term, TermDeclaration declaration) {
+        return Mono.defer(() -> {
+            TermPool pool = pools.computeIfAbsent(term, t -> new TermPool());
+            pool.lastLeasedAt = Instant.now();
+
+            Session session;
+            while ((session = pool.idle.pollFirst()) != null) {
+                if (session.isExpired(Instant.now())) {
+                    evictedExpired.increment();
+                    discard(session);
+                    continue;
+                }
+                reused.increment();
+                return Mono.just(session.checkOut());
+            }
+
+            return open(term, declaration).map(Session::checkOut);
+        });
+    }
+
+    /**
+     * Returns a leased session. Unhealthy sessions (errors, or GoSolar answering
+     * with no data) and sessions past their limits are closed; healthy ones have
+     * their search form reset through {@code upstream}, in the background, and
+     * rejoin the pool.
+     */
+    public void release(Session session, boolean healthy, Upstream upstream) {
+        if (!session.leased.compareAndSet(true, false)) {
+            return;
+        }
+        session.lastUsedAt = Instant.now();
+        if (!session.pooled) {
+            discard(session);
+            return;
+        }
+        if (!healthy) {
+            evictedNoData.increment();
+            log.debug("Evicting GoSolar session {} for term {} after an unusable search", session.id, session.term);
+            discard(session);
+            return;
+        }
+        if (session.isExpired(Instant.now())) {
+            evictedExpired.increment();
+            discard(session);
+            return;
+        }
+
+        TermPool pool = pools.computeIfAbsent(session.term, t -> new TermPool());
+        upstream.call(() -> session.client.get()
+                        .uri(uriBuilder -> uriBuilder.path(PantherWatchService.RESET_PATH).build())
+                        .header(HttpHeaders.COOKIE, session.cookies)
+                        .retrieve()
+                        .toBodilessEntity()
+                        .timeout(RESET_TIMEOUT)
+                        .then())
+                .subscribe(
+                        null,
+                        error -> {
+                            log.debug("Reset failed for GoSolar session {}; discarding: {}",
+                                    session.id, error.getMessage());
+                            discard(session);
+                        },
+                        () -> pool.idle.offerFirst(session));
+    }
+
+    /**
+     * Retires expired idle sessions and tops up recently searched terms so the
+     * next search finds a declared session waiting. Top-ups are declared in the
+     * background, never blocking the caller; {@code declaration} should run under
+     * the GoSolar concurrency cap, like the searches it competes with.
+     */
+    public void maintain(TermDeclaration declaration) {
+        if (!enabled) {
+            return;
+        }
+        Instant now = Instant.now();
+        pools.forEach((term, pool) -> {
+            pool.idle.removeIf(session -> {
+                if (session.isExpired(now)) {
+                    evictedExpired.increment();
+                    discard(session);
+                    return true;
+                }
+                return false;
+            });
+
+            if (pool.lastLeasedAt.isBefore(now.minus(WARM_WINDOW))) {
+                if (pool.total.get() == 0) {
+                    pools.remove(term, pool);
+                }
+                return;
+            }
+            // Sessions still being declared count towards the target, so a slow upstream
+            // is not sent another round of declarations every maintenance pass.
+            while (pool.idle.size() + pool.warming.get() < minIdlePerTerm
+                    && pool.total.get() + pool.warming.get() < maxPerTerm) {
+                pool.warming.incrementAndGet();
+                open(term, declaration)
+                        .timeout(RESPONSE_TIMEOUT)
+                        .doFinally(signal -> pool.warming.decrementAndGet())
+                        .subscribe(
+                                session -> {
+                                    if (session.pooled) {
+                                        pool.idle.offerLast(session);
+                                    } else {
+                                        discard(session);
+                                    }
+                                },
+                                error -> log.warn("Could not pre-declare a GoSolar session for term {}: {}",
+                                        term, error.getMessage()));
+            }
+        });
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("created", created.sum());
+        status.put("reused", reused.sum());
+        status.put("evictedNoData", evictedNoData.sum());
+        status.put("evictedExpired", evictedExpired.sum());
+        status.put("unpinnedDeclarations", rejectedUnpinned.sum());
+        Map<String, Object> terms = new LinkedHashMap<>();
+        pools.forEach((term, pool) -> terms.put(term, Map.of(
+                "open", pool.total.get(),
+                "idle", pool.idle.size())));
+        status.put("terms", terms);
+        return status;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pools.values().forEach(pool -> {
+            Session session;
+            while ((session = pool.idle.pollFirst()) != null) {
+                discard(session);
+            }
+        });
+    }
+
+    private Mono<Session> open(String term, TermDeclaration declaration) {
+        long id = sessionIds.incrementAndGet();
+        ConnectionProvider provider = ConnectionProvider.builder("gosolar-session-" + id)
+                .maxConnections(1)
+                .maxIdleTime(maxIdle)
+                .pendingAcquireTimeout(RESPONSE_TIMEOUT)
+                .build();
+        WebClient client = WebClientConfig.goSolarClient(baseUrl,
+                HttpClient.create(provider).responseTimeout(RESPONSE_TIMEOUT));
+
+        return declaration.declare(client, term)
+                .doOnError(e -> provider.disposeLater().subscribe())
+                .doOnCancel(() -> provider.disposeLater().subscribe())
+                .map(cookies -> {
+                    Session session = new Session(id, term, cookies, client, provider);
+                    created.increment();
+
+                    // Only a session holding both cookies is node-pinned and safe to reuse. Without
+                    // BIGipServer, it still serves the search that opened it, then is closed.
+                    if (!isPinned(cookies)) {
+                        rejectedUnpinned.increment();
+                        return session;
+                    }
+                    TermPool pool = pools.computeIfAbsent(term, t -> new TermPool());
+                    if (pool.total.incrementAndGet() <= maxPerTerm) {
+                        session.pooled = true;
+                    } else {
+                        pool.total.decrementAndGet();
+                    }
+                    return session;
+                });
+    }
+
+    private void discard(Session session) {
+        if (session.pooled) {
+            session.pooled = false;
+            TermPool pool = pools.get(session.term);
+            if (pool != null) {
+                pool.total.decrementAndGet();
+            }
+        }
+        session.provider.disposeLater().subscribe();
+    }
+
+    static boolean isPinned(String cookies) {
+        if (cookies == null) {
+            return false;
+        }
+        boolean hasSession = false;
+        boolean hasBigIp = false;
+        for (String cookie : cookies.split(";\\s*")) {
+            hasSession |= cookie.startsWith(SESSION_COOKIE_PREFIX);
+            hasBigIp |= cookie.startsWith(BIG_IP_COOKIE_PREFIX);
+        }
+        return hasSession && hasBigIp;
+    }
+
+    private static final class TermPool {
+        private final ConcurrentLinkedDeque<Session> idle = new ConcurrentLinkedDeque<>();
+        /** Pooled sessions for the term, leased or idle. */
+        private final AtomicInteger total = new AtomicInteger();
+        /** Top-up declarations still in flight. */
+        private final AtomicInteger warming = new AtomicInteger();
+        private volatile Instant lastLeasedAt = Instant.now();
+    }
+
+    /** A declared GoSolar session and the single connection it is pinned to. */
+    public final class Session {
+        private final long id;
+        private final String term;
+        private final String cookies;
+        private final WebClient client;
+        private final ConnectionProvider provider;
+        private final Instant createdAt = Instant.now();
+        private volatile Instant lastUsedAt = Instant.now();
+        private volatile int uses;
+        private volatile boolean pooled;
+        private final AtomicBoolean leased = new AtomicBoolean();
+
+        private Session(long id, String term, String cookies, WebClient client, ConnectionProvider provider) {
+            this.id = id;
+            this.term = term;
+            this.cookies = cookies;
+            this.client = client;
+            this.provider = provider;
+        }
+
+        public WebClient client() {
+            return client;
+        }
+
+        public String cookies() {
+            return cookies;
+        }
+
+        private Session checkOut() {
+            uses++;
+            leased.set(true);
+            return this;
+        }
+
+        private boolean isExpired(Instant now) {
+            return now.isAfter(createdAt.plus(maxAge))
+                    || now.isAfter(lastUsedAt.plus(maxIdle))
+                    || uses >= maxUses;
+        }
+    }
+}
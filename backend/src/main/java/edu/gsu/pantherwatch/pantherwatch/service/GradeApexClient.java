@@ -1,6 +1,7 @@
 package edu.gsu.pantherwatch.pantherwatch.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.net.CookieManager;
@@ -9,6 +10,7 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -49,6 +51,9 @@ public class GradeApexClient {
     private static final Pattern P_INSTANCE =
             Pattern.compile("name=\"p_instance\"[^>]*value=\"(\\d{6,})\"");
 
+    @Autowired
+    private UpstreamLimiters upstreamLimiters;
+
     /** An APEX session: its own HttpClient/cookie jar and p_instance. */
     public static final class Session {
         private final HttpClient http;
@@ -94,22 +99,41 @@ public class GradeApexClient {
                 + "::NO::P_TERM_" + PAGE + ":" + term);
     }
 
-    /** Downloads the full CSV for a report region (reflecting the current filter). */
-    public String downloadCsv(Session session, String regionId) {
+    /**
+     * Downloads the full CSV for a report region (reflecting the current filter),
+     * streaming the body straight into {@code target} instead of holding it in
+     * memory. Returns {@code target}.
+     */
+    public Path downloadCsv(Session session, String regionId, Path target) {
         String request = "FLOW_EXCEL_OUTPUT_" + regionId + "_en";
-        return get(session.http, BASE + "?p=" + APP + ":" + PAGE + ":" + session.id + ":" + request);
+        String url = BASE + "?p=" + APP + ":" + PAGE + ":" + session.id + ":" + request;
+        try {
+            HttpResponse<Path> resp = upstreamLimiters.apex()
+                    .call(() -> session.http.send(request(url), HttpResponse.BodyHandlers.ofFile(target)));
+            if (resp.statusCode() != 200) {
+                throw new IllegalStateException("APEX CSV export returned status " + resp.statusCode());
+            }
+            return resp.body();
+        } catch (Exception e) {
+            throw new RuntimeException("APEX request failed: " + url, e);
+        }
+    }
+
+    private static HttpRequest request(String url) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .timeout(TIMEOUT)
+                .header("User-Agent", USER_AGENT)
+                .header("Accept", "text/html,application/xhtml+xml,text/csv,*/*")
+                .GET()
+                .build();
     }
 
     private String get(HttpClient http, String url) {
         try {
-            HttpRequest req = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .timeout(TIMEOUT)
-                    .header("User-Agent", USER_AGENT)
-                    .header("Accept", "text/html,application/xhtml+xml,text/csv,*/*")
-                    .GET()
-                    .build();
-            HttpResponse<String> resp = http.send(req, HttpResponse.BodyHandlers.ofString());
+            HttpRequest req = request(url);
+            HttpResponse<String> resp = upstreamLimiters.apex()
+                    .call(() -> http.send(req, HttpResponse.BodyHandlers.ofString()));
             if (resp.statusCode() != 200) {
                 log.warn("APEX GET {} returned status {}", url, resp.statusCode());
             }
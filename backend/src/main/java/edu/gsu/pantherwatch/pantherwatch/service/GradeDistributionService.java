@@ -12,17 +12,41 @@ import org.jsoup.nodes.Element;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Downloads, holds (in memory) and aggregates GSU course-section grade
@@ -31,9 +55,15 @@ import java.util.stream.Stream;
  * The dataset is small, static and cheaply re-downloaded, so there is no DB: a
  * refresh pulls one CSV per term (all subjects) from the APEX report's built-in
  * export, parses the summary table (course, professor, A-F buckets, GPA, W) and
- * the detailed table (fine +/- grades) and merges them by CRN into an in-memory
- * index keyed by "SUBJECT|NUMBER". Aggregation groups those sections per
- * professor (and overall) across the loaded terms.
+ * the detailed table (fine +/- grades) and merges them by CRN. The CSVs are kept
+ * gzipped (plain ones from older versions are still read, and compressed on the
+ * next refresh). Each term is then written once as a binary {@link GradeIndexFile}
+ * next to its CSVs and
+ * memory-mapped, so startup maps files instead of parsing CSVs and the sections
+ * stay off the heap until a course is looked up. Aggregation groups a course's
+ * sections per professor (and overall) across the loaded terms; it runs for every
+ * course once per load into a {@link GradeSnapshot}, so requests only look up
+ * (and mostly copy cached JSON).
  */
 @Service
 @RequiredArgsConstructor
@@ -54,10 +84,34 @@ public class GradeDistributionService {
     @Value("${pantherwatch.grades.terms-window:8}")
     private int termsWindow;
 
-    // In-memory dataset, swapped atomically after each (re)load.
-    private volatile Map<String, List<SectionGrade>> index = Map.of();
-    private volatile List<String> loadedTerms = List.of();
-    private volatile Instant lastUpdated = null;
+    /** APEX sessions downloading terms at once on a refresh; also bounded by the APEX upstream cap. */
+    @Value("${pantherwatch.grades.download-sessions:3}")
+    private int downloadSessions;
+
+    /** Tries per term on a refresh before it is left for the next run. */
+    @Value("${pantherwatch.grades.download-attempts:3}")
+    private int downloadAttempts;
+
+    private static final Duration RETRY_BACKOFF = Duration.ofSeconds(5);
+
+    private static final String SUMMARY = "summary";
+    private static final String DETAILED = "detailed";
+    /** Suffix of cached (gzipped) CSVs. */
+    static final String GZIP = ".gz";
+    private static final int IO_BUFFER = 64 * 1024;
+
+    /** The mapped per-term indexes (newest term first) and the snapshot aggregated from them. */
+    private record Segments(List<GradeIndexFile> terms, GradeSnapshot snapshot, Instant lastUpdated) {
+    }
+
+    // Replaced as a whole after each (re)load, so readers never see terms and aggregates out of step.
+    private volatile Segments segments = new Segments(List.of(), GradeSnapshot.EMPTY, null);
+    private volatile Map<String, Long> termLoadMillis = Map.of();
+    private volatile long lastLoadMillis;
+
+    /** Normalized professor keys of queried instructor names; the same few thousand names recur. */
+    private final Map<String, String> professorKeys = new ConcurrentHashMap<>();
+    private static final int MAX_CACHED_NAMES = 10_000;
 
     // --------------------------------------------------------------- refreshing
 
@@ -66,24 +120,30 @@ public class GradeDistributionService {
     void init() {
         try {
             loadFromDisk();
-            log.info("Loaded grade data for {} terms from {}", loadedTerms.size(), gradeDir);
+            log.info("Loaded grade data for {} terms from {}", segments.terms().size(), gradeDir);
         } catch (Exception e) {
             log.warn("Could not load cached grade CSVs from {}: {}", gradeDir, e.toString());
         }
     }
 
     public boolean isEmpty() {
-        return index.isEmpty();
+        return segments.terms().stream().allMatch(file -> file.size() == 0);
     }
 
     /**
      * Downloads any of the most recent {@code termsWindow} terms that aren't
-     * already cached and that have posted grades, saving each as a pair of CSVs in
-     * {@link #gradeDir}, then rebuilds the in-memory index from disk.
+     * already cached and that have posted grades, saving each as a pair of gzipped
+     * CSVs in {@link #gradeDir}, then rebuilds the in-memory index from disk.
      *
      * Posted grades are historical/immutable, so a term already on disk is never
      * re-downloaded; the monthly run simply picks up terms whose grades have since
      * posted. {@code synchronized} so overlapping triggers can't double-download.
+     *
+     * The term filter is APEX session state, so terms are spread over up to
+     * {@code downloadSessions} workers, each with its own session, taking terms
+     * from a shared queue. A failed term is retried up to {@code downloadAttempts}
+     * times on a fresh session (APEX sessions expire) before it is left for the next
+     * run.
      */
     public synchronized void refresh() {
         Path dir = Path.of(gradeDir);
@@ -93,98 +153,340 @@ public class GradeDistributionService {
             throw new RuntimeException("Could not create grade data dir " + gradeDir, e);
         }
 
-        GradeApexClient.Session session = apexClient.newSession();
-        List<String> terms = parseTermOptions(session.landingHtml()).stream()
-                .limit(termsWindow)
-                .toList();
+        compressLegacyCsvs(dir);
 
-        String[] regionIds = null;
-        int downloaded = 0;
-        for (String term : terms) {
-            Path sumPath = dir.resolve(term + "__summary.csv");
-            Path detPath = dir.resolve(term + "__detailed.csv");
-            if (Files.exists(sumPath) && Files.exists(detPath)) {
-                continue; // immutable history already cached
+        GradeApexClient.Session landing = apexClient.newSession();
+        Queue<String> missing = new ConcurrentLinkedQueue<>();
+        for (String term : parseTermOptions(landing.landingHtml()).stream().limit(termsWindow).toList()) {
+            if (cachedCsv(dir, term, SUMMARY) == null || cachedCsv(dir, term, DETAILED) == null) {
+                missing.add(term); // anything else is immutable history already cached
             }
-            try {
-                String html = apexClient.setTerm(session, term);
-                if (regionIds == null) {
-                    regionIds = extractRegionIds(html);
-                }
-                String summaryCsv = apexClient.downloadCsv(session, regionIds[0]);
-                String detailedCsv = apexClient.downloadCsv(session, regionIds[1]);
-                if (!hasPostedGrades(summaryCsv)) {
-                    log.info("Term {} has no posted grades yet; will re-check next run", term);
-                    continue;
-                }
-                Files.writeString(sumPath, summaryCsv);
-                Files.writeString(detPath, detailedCsv);
-                downloaded++;
-                log.info("Cached grade CSVs for term {}", term);
-            } catch (Exception e) {
-                log.warn("Failed downloading grade term {}: {}", term, e.toString());
+        }
+
+        long started = System.nanoTime();
+        int workers = Math.min(Math.max(1, downloadSessions), missing.size());
+        AtomicReference<String[]> regionIds = new AtomicReference<>();
+        AtomicInteger downloaded = new AtomicInteger();
+        try (ExecutorService downloaders = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("grade-download-", 0).factory())) {
+            for (int w = 0; w < workers; w++) {
+                GradeApexClient.Session first = w == 0 ? landing : null;
+                downloaders.execute(() -> downloadTerms(dir, missing, first, regionIds, downloaded));
             }
         }
-        log.info("Grade refresh: {} new term(s) downloaded", downloaded);
+        log.info("Grade refresh: {} new term(s) downloaded over {} session(s) in {} ms", downloaded.get(), workers,
+                (System.nanoTime() - started) / 1_000_000);
         loadFromDisk();
     }
 
-    /** Rebuilds the in-memory index from the CSV files currently on disk. */
-    private void loadFromDisk() {
+    /**
+     * One download worker: takes terms off {@code terms} until it is empty, on its
+     * own APEX session (opened lazily unless {@code session} is given).
+     */
+    private void downloadTerms(Path dir, Queue<String> terms, GradeApexClient.Session session,
+                               AtomicReference<String[]> regionIds, AtomicInteger downloaded) {
+        for (String term = terms.poll(); term != null; term = terms.poll()) {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    if (session == null) {
+                        session = apexClient.newSession();
+                    }
+                    if (downloadTerm(dir, term, session, regionIds)) {
+                        downloaded.incrementAndGet();
+                    }
+                    break;
+                } catch (Exception e) {
+                    session = null;
+                    if (attempt >= downloadAttempts) {
+                        log.warn("Failed downloading grade term {} after {} attempt(s): {}", term, attempt, e.toString());
+                        break;
+                    }
+                    log.info("Retrying grade term {} (attempt {} failed: {})", term, attempt, e.toString());
+                    try {
+                        Thread.sleep(RETRY_BACKOFF.multipliedBy(attempt));
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /** Downloads one term's CSV pair on {@code session}; false if its grades haven't posted yet. */
+    private boolean downloadTerm(Path dir, String term, GradeApexClient.Session session,
+                                 AtomicReference<String[]> regionIds) throws IOException {
+        Path sumPath = dir.resolve(term + "__" + SUMMARY + ".csv" + GZIP);
+        Path detPath = dir.resolve(term + "__" + DETAILED + ".csv" + GZIP);
+        Path sumRaw = partFile(dir.resolve(term + "__" + SUMMARY + ".csv"));
+        Path detRaw = partFile(dir.resolve(term + "__" + DETAILED + ".csv"));
+        try {
+            String html = apexClient.setTerm(session, term);
+            String[] regions = regionIds.get();
+            if (regions == null) {
+                regions = extractRegionIds(html);
+                regionIds.compareAndSet(null, regions);
+            }
+            // Streamed straight to disk; only compressed into place once the term proves to have grades.
+            apexClient.downloadCsv(session, regions[0], sumRaw);
+            apexClient.downloadCsv(session, regions[1], detRaw);
+            if (!hasPostedGrades(sumRaw)) {
+                log.info("Term {} has no posted grades yet; will re-check next run", term);
+                return false;
+            }
+            compress(detRaw, detPath);
+            compress(sumRaw, sumPath);
+            log.info("Cached grade CSVs for term {} ({} KB compressed)", term,
+                    (Files.size(sumPath) + Files.size(detPath)) / 1024);
+            return true;
+        } finally {
+            deleteQuietly(sumRaw);
+            deleteQuietly(detRaw);
+            deleteQuietly(partFile(sumPath));
+            deleteQuietly(partFile(detPath));
+        }
+    }
+
+    /** Gzips the plain CSVs earlier versions cached, keeping their timestamps so term indexes stay current. */
+    private void compressLegacyCsvs(Path dir) {
+        List<Path> legacy;
+        try (Stream<Path> files = Files.list(dir)) {
+            legacy = files.filter(p -> p.getFileName().toString().endsWith(".csv")).toList();
+        } catch (IOException e) {
+            log.warn("Could not list {} for plain grade CSVs: {}", dir, e.toString());
+            return;
+        }
+        for (Path plain : legacy) {
+            Path gz = plain.resolveSibling(plain.getFileName() + GZIP);
+            try {
+                compress(plain, gz);
+                Files.delete(plain);
+                log.info("Compressed legacy grade CSV {}", plain.getFileName());
+            } catch (IOException e) {
+                log.warn("Could not compress legacy grade CSV {}: {}", plain, e.toString());
+                deleteQuietly(partFile(gz));
+            }
+        }
+    }
+
+    /**
+     * Brings the loaded term segments in line with the CSVs on disk: maps (or
+     * builds) the index of each term in the window that isn't loaded yet, drops
+     * terms that have left the window, and re-aggregates only the courses those
+     * terms contain. Terms already loaded are kept as they are, since posted grades
+     * never change, so a refresh costs as much as the terms it adds.
+     */
+    private synchronized void loadFromDisk() {
         Path dir = Path.of(gradeDir);
         if (!Files.isDirectory(dir)) {
             return;
         }
-        Map<String, List<SectionGrade>> newIndex = new LinkedHashMap<>();
-        List<String> loaded = new ArrayList<>();
-        int total = 0;
+        List<String> terms;
         try (Stream<Path> files = Files.list(dir)) {
-            List<String> terms = files.map(p -> p.getFileName().toString())
-                    .filter(n -> n.endsWith("__summary.csv"))
+            terms = files.map(p -> p.getFileName().toString())
+                    .filter(n -> n.endsWith("__" + SUMMARY + ".csv") || n.endsWith("__" + SUMMARY + ".csv" + GZIP))
                     .map(n -> n.substring(0, n.indexOf("__")))
+                    .distinct()
                     .sorted(Comparator.reverseOrder())
                     .limit(termsWindow)
                     .toList();
-            for (String term : terms) {
-                Path sumPath = dir.resolve(term + "__summary.csv");
-                Path detPath = dir.resolve(term + "__detailed.csv");
-                if (!Files.exists(detPath)) {
-                    continue;
-                }
-                List<SectionGrade> sections =
-                        parseTerm(Files.readString(sumPath), Files.readString(detPath), term);
-                for (SectionGrade s : sections) {
-                    newIndex.computeIfAbsent(key(s.getSubject(), s.getCourseNumber()), k -> new ArrayList<>()).add(s);
-                }
-                if (!sections.isEmpty()) {
-                    loaded.add(term);
-                    total += sections.size();
-                }
-            }
         } catch (IOException e) {
             throw new RuntimeException("Could not read grade CSVs from " + gradeDir, e);
         }
 
-        this.index = newIndex;
-        this.loadedTerms = loaded;
-        this.lastUpdated = Instant.now();
-        log.info("Grade index rebuilt: {} sections across {} terms", total, loaded.size());
+        long started = System.nanoTime();
+        Segments current = segments;
+        Map<String, GradeIndexFile> kept = new LinkedHashMap<>();
+        for (GradeIndexFile file : current.terms()) {
+            if (terms.contains(file.term())) {
+                kept.put(file.term(), file);
+            }
+        }
+        Map<String, TermLoad> added = loadTerms(dir, terms.stream().filter(t -> !kept.containsKey(t)).toList());
+
+        List<GradeIndexFile> next = new ArrayList<>();
+        List<GradeIndexFile> changed = new ArrayList<>();
+        Map<String, Long> loadMillis = new LinkedHashMap<>();
+        for (String term : terms) {
+            if (kept.containsKey(term)) {
+                next.add(kept.get(term));
+                loadMillis.put(term, termLoadMillis.getOrDefault(term, 0L));
+            } else if (added.containsKey(term)) {
+                GradeIndexFile file = added.get(term).file();
+                loadMillis.put(term, added.get(term).millis());
+                if (file.size() > 0) {
+                    next.add(file);
+                    changed.add(file);
+                }
+            }
+        }
+        for (GradeIndexFile file : current.terms()) {
+            if (!kept.containsKey(file.term())) {
+                changed.add(file);
+            }
+        }
+        this.termLoadMillis = loadMillis;
+        if (changed.isEmpty()) {
+            log.info("Grade terms unchanged: {}", terms);
+            return;
+        }
+
+        Set<String> courseKeys = new HashSet<>();
+        for (GradeIndexFile file : changed) {
+            courseKeys.addAll(file.courseKeys());
+        }
+        GradeSnapshot snapshot = buildSnapshot(current.snapshot(), next, courseKeys);
+        this.segments = new Segments(List.copyOf(next), snapshot, Instant.now());
+        this.lastLoadMillis = (System.nanoTime() - started) / 1_000_000;
+        log.info("Grade index updated in {} ms: {} term(s) loaded, {} dropped, {} courses re-aggregated; "
+                        + "{} sections across {} terms, {} courses ({} KB of JSON)",
+                lastLoadMillis, added.size(), current.terms().size() - kept.size(), courseKeys.size(),
+                next.stream().mapToInt(GradeIndexFile::size).sum(), next.size(),
+                snapshot.courseCount(), snapshot.jsonBytes() / 1024);
+    }
+
+    /**
+     * Loads {@code terms} at once (parsing is CPU-bound, so the virtual threads
+     * spread over every core), by term. Terms that fail or lack a CSV are left out.
+     */
+    private Map<String, TermLoad> loadTerms(Path dir, List<String> terms) {
+        List<Future<TermLoad>> pending = new ArrayList<>();
+        try (ExecutorService loaders = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("grade-load-", 0).factory())) {
+            for (String term : terms) {
+                pending.add(loaders.submit(() -> loadTerm(dir, term)));
+            }
+        }
+        Map<String, TermLoad> loads = new LinkedHashMap<>();
+        for (int i = 0; i < terms.size(); i++) {
+            TermLoad load;
+            try {
+                load = pending.get(i).get();
+            } catch (ExecutionException e) {
+                log.warn("Skipping grade term {}: {}", terms.get(i), e.getCause().toString());
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted loading grade terms", e);
+            }
+            if (load == null) {
+                continue;
+            }
+            loads.put(load.term(), load);
+            log.info("Grade term {}: {} sections {} in {} ms", load.term(), load.file().size(),
+                    load.parsed() ? "parsed from CSV" : "mapped", load.millis());
+        }
+        return loads;
+    }
+
+    /** One term's load: its mapped index, whether the CSVs had to be parsed, and how long it took. */
+    private record TermLoad(String term, GradeIndexFile file, boolean parsed, long millis) {
+    }
+
+    /** Loads one term; null if its CSV pair is incomplete. */
+    private TermLoad loadTerm(Path dir, String term) throws IOException {
+        Path sumPath = cachedCsv(dir, term, SUMMARY);
+        Path detPath = cachedCsv(dir, term, DETAILED);
+        if (sumPath == null || detPath == null) {
+            return null;
+        }
+        long started = System.nanoTime();
+        boolean[] parsed = new boolean[1];
+        GradeIndexFile file = openOrBuildIndex(term, sumPath, detPath, parsed);
+        return new TermLoad(term, file, parsed[0], (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Maps the term's {@value GradeIndexFile#EXTENSION} file, first (re)writing it
+     * from the CSVs if it is missing, older than them, or unreadable. The CSVs
+     * stay the source of truth; the index is just a faster form of them.
+     */
+    private GradeIndexFile openOrBuildIndex(String term, Path sumPath, Path detPath, boolean[] parsed)
+            throws IOException {
+        Path indexPath = sumPath.resolveSibling(term + GradeIndexFile.EXTENSION);
+        if (Files.exists(indexPath)
+                && Files.getLastModifiedTime(indexPath).compareTo(Files.getLastModifiedTime(sumPath)) >= 0
+                && Files.getLastModifiedTime(indexPath).compareTo(Files.getLastModifiedTime(detPath)) >= 0) {
+            try {
+                return GradeIndexFile.open(indexPath);
+            } catch (IOException e) {
+                log.warn("Rebuilding grade index for term {}: {}", term, e.getMessage());
+            }
+        }
+        parsed[0] = true;
+        List<SectionGrade> sections = parseTerm(sumPath, detPath, term);
+        GradeIndexFile.write(indexPath, term, sections);
+        return GradeIndexFile.open(indexPath);
     }
 
-    /** A term has posted grades once any section reports a course GPA (CRS AVG). */
-    private boolean hasPostedGrades(String summaryCsv) {
-        List<List<String>> rows = parseCsv(summaryCsv);
-        if (rows.size() < 2) {
+    /** A term has posted grades once any section reports a course GPA (CRS AVG); reads only as far as the first. */
+    private boolean hasPostedGrades(Path summaryCsv) throws IOException {
+        try (CsvRowReader rows = new CsvRowReader(openCsv(summaryCsv))) {
+            List<String> header = rows.next();
+            if (header == null) {
+                return false;
+            }
+            int iGpa = col(normalizeHeaders(header), x -> x.equalsIgnoreCase("CRS AVG"));
+            for (List<String> row = rows.next(); row != null; row = rows.next()) {
+                if (toDouble(at(row, iGpa)) != null) {
+                    return true;
+                }
+            }
             return false;
         }
-        List<String> h = normalizeHeaders(rows.get(0));
-        int iGpa = col(h, x -> x.equalsIgnoreCase("CRS AVG"));
-        for (int r = 1; r < rows.size(); r++) {
-            if (toDouble(at(rows.get(r), iGpa)) != null) {
-                return true;
+    }
+
+    /**
+     * The term's cached CSV of {@code kind}: the gzipped one, else a plain one left
+     * by an earlier version; null if there is neither.
+     */
+    private static Path cachedCsv(Path dir, String term, String kind) {
+        Path gz = dir.resolve(term + "__" + kind + ".csv" + GZIP);
+        if (Files.exists(gz)) {
+            return gz;
+        }
+        Path plain = dir.resolve(term + "__" + kind + ".csv");
+        return Files.exists(plain) ? plain : null;
+    }
+
+    /**
+     * Reads a cached CSV, inflating it as it streams when gzipped. Reading a gzipped
+     * file to the end checks its CRC32 and length, so a corrupt file fails with an
+     * IOException rather than parsing as truncated data.
+     */
+    static Reader openCsv(Path path) throws IOException {
+        InputStream in = Files.newInputStream(path);
+        if (path.getFileName().toString().endsWith(GZIP)) {
+            try {
+                in = new GZIPInputStream(in, IO_BUFFER);
+            } catch (IOException e) {
+                in.close();
+                throw e;
             }
         }
-        return false;
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), IO_BUFFER);
+    }
+
+    /** Gzips {@code source} into {@code target}, replacing it atomically and keeping the source's timestamp. */
+    static void compress(Path source, Path target) throws IOException {
+        Path tmp = partFile(target);
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp), IO_BUFFER)) {
+            Files.copy(source, out);
+        }
+        Files.setLastModifiedTime(tmp, Files.getLastModifiedTime(source));
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static Path partFile(Path target) {
+        return target.resolveSibling(target.getFileName() + ".part");
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.debug("Could not delete {}: {}", path, e.toString());
+        }
     }
 
     /** Discovers the summary + detailed report region ids from a rendered page. */
@@ -224,18 +526,35 @@ public class GradeDistributionService {
     // ------------------------------------------------------------- CSV parsing
 
     List<SectionGrade> parseTerm(String summaryCsv, String detailedCsv, String term) {
+        try {
+            return parseTerm(new StringReader(summaryCsv == null ? "" : summaryCsv),
+                    new StringReader(detailedCsv == null ? "" : detailedCsv), term);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Parses a term's cached CSVs row by row, without reading either file into memory. */
+    List<SectionGrade> parseTerm(Path summaryCsv, Path detailedCsv, String term) throws IOException {
+        try (Reader summary = openCsv(summaryCsv);
+             Reader detailed = openCsv(detailedCsv)) {
+            return parseTerm(summary, detailed, term);
+        }
+    }
+
+    private List<SectionGrade> parseTerm(Reader summaryCsv, Reader detailedCsv, String term) throws IOException {
         Map<String, SectionGrade> byCrn = new LinkedHashMap<>();
-        parseSummary(summaryCsv, term, byCrn);
-        parseDetailed(detailedCsv, byCrn);
+        parseSummary(new CsvRowReader(summaryCsv), term, byCrn);
+        parseDetailed(new CsvRowReader(detailedCsv), byCrn);
         return new ArrayList<>(byCrn.values());
     }
 
-    private void parseSummary(String csv, String term, Map<String, SectionGrade> byCrn) {
-        List<List<String>> rows = parseCsv(csv);
-        if (rows.isEmpty()) {
+    private void parseSummary(CsvRowReader rows, String term, Map<String, SectionGrade> byCrn) throws IOException {
+        List<String> header = rows.next();
+        if (header == null) {
             return;
         }
-        List<String> h = normalizeHeaders(rows.get(0));
+        List<String> h = normalizeHeaders(header);
         int iCrn = col(h, x -> x.equalsIgnoreCase("CRN"));
         int iCourse = col(h, x -> x.equalsIgnoreCase("Course"));
         int iProf = col(h, x -> x.equalsIgnoreCase("Professor"));
@@ -251,8 +570,7 @@ public class GradeDistributionService {
         int iTotal = col(h, x -> x.equalsIgnoreCase("Total"));
         int iMethod = col(h, x -> x.toLowerCase().contains("instruction"));
 
-        for (int r = 1; r < rows.size(); r++) {
-            List<String> c = rows.get(r);
+        for (List<String> c = rows.next(); c != null; c = rows.next()) {
             String crn = at(c, iCrn);
             if (crn == null || !crn.matches("\\d{4,}")) {
                 continue;
@@ -282,12 +600,12 @@ public class GradeDistributionService {
         }
     }
 
-    private void parseDetailed(String csv, Map<String, SectionGrade> byCrn) {
-        List<List<String>> rows = parseCsv(csv);
-        if (rows.isEmpty()) {
+    private void parseDetailed(CsvRowReader rows, Map<String, SectionGrade> byCrn) throws IOException {
+        List<String> header = rows.next();
+        if (header == null) {
             return;
         }
-        List<String> h = normalizeHeaders(rows.get(0));
+        List<String> h = normalizeHeaders(header);
         int iCrn = col(h, x -> x.equalsIgnoreCase("CRN"));
         int iAp = col(h, x -> x.equals("A+"));
         int iA = col(h, x -> x.equals("A"));
@@ -299,8 +617,7 @@ public class GradeDistributionService {
         int iC = col(h, x -> x.equals("C"));
         int iCm = col(h, x -> x.equals("C-"));
 
-        for (int r = 1; r < rows.size(); r++) {
-            List<String> c = rows.get(r);
+        for (List<String> c = rows.next(); c != null; c = rows.next()) {
             String crn = at(c, iCrn);
             SectionGrade s = (crn == null) ? null : byCrn.get(crn);
             if (s == null) {
@@ -318,73 +635,53 @@ public class GradeDistributionService {
         }
     }
 
-    /** Minimal RFC-4180 CSV parser (handles quoted fields and escaped quotes). */
-    static List<List<String>> parseCsv(String text) {
-        List<List<String>> rows = new ArrayList<>();
-        if (text == null) {
-            return rows;
-        }
-        List<String> row = new ArrayList<>();
-        StringBuilder field = new StringBuilder();
-        boolean inQuotes = false;
-        for (int i = 0; i < text.length(); i++) {
-            char ch = text.charAt(i);
-            if (inQuotes) {
-                if (ch == '"') {
-                    if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
-                        field.append('"');
-                        i++;
-                    } else {
-                        inQuotes = false;
-                    }
-                } else {
-                    field.append(ch);
-                }
-            } else if (ch == '"') {
-                inQuotes = true;
-            } else if (ch == ',') {
-                row.add(field.toString());
-                field.setLength(0);
-            } else if (ch == '\n' || ch == '\r') {
-                if (ch == '\r' && i + 1 < text.length() && text.charAt(i + 1) == '\n') {
-                    i++;
-                }
-                row.add(field.toString());
-                field.setLength(0);
-                if (row.size() > 1 || !row.get(0).isEmpty()) {
-                    rows.add(row);
-                }
-                row = new ArrayList<>();
-            } else {
-                field.append(ch);
-            }
-        }
-        if (field.length() > 0 || !row.isEmpty()) {
-            row.add(field.toString());
-            if (row.size() > 1 || !row.get(0).isEmpty()) {
-                rows.add(row);
-            }
-        }
-        return rows;
-    }
-
     // ------------------------------------------------------------- aggregation
 
     public GradeDistributionResponse getDistribution(String subject, String courseNumber, String instructor) {
-        List<SectionGrade> rows = index.getOrDefault(key(subject, courseNumber), List.of());
-        return buildResponse(subject, courseNumber, instructor, rows);
+        return segments.snapshot().response(subject, courseNumber, instructor, professorKey(instructor));
+    }
+
+    /** {@link #getDistribution} as JSON, assembled from the snapshot's cached bytes. */
+    public byte[] getDistributionJson(String subject, String courseNumber, String instructor) {
+        return segments.snapshot().json(subject, courseNumber, instructor, professorKey(instructor));
     }
 
     /** Pure aggregation + instructor matching over a set of section rows (testable). */
     GradeDistributionResponse buildResponse(String subject, String courseNumber, String instructor,
                                             List<SectionGrade> rows) {
+        GradeSnapshot.Course course = aggregateCourse(rows);
+        if (course == null) {
+            return GradeSnapshot.EMPTY.response(subject, courseNumber, instructor, null);
+        }
+        return course.response(subject, courseNumber, instructor, professorKey(instructor));
+    }
+
+    /**
+     * {@code base} with the courses in {@code courseKeys} re-aggregated across
+     * {@code indexes} (a course per task), and dropped where no term has them any more.
+     */
+    GradeSnapshot buildSnapshot(GradeSnapshot base, List<GradeIndexFile> indexes, Set<String> courseKeys) {
+        Map<String, GradeSnapshot.Course> courses = new ConcurrentHashMap<>();
+        Set<String> removed = ConcurrentHashMap.newKeySet();
+        courseKeys.parallelStream().forEach(key -> {
+            List<SectionGrade> rows = new ArrayList<>();
+            for (GradeIndexFile file : indexes) {
+                rows.addAll(file.sections(key));
+            }
+            GradeSnapshot.Course course = aggregateCourse(rows);
+            if (course != null) {
+                courses.put(key, course);
+            } else {
+                removed.add(key);
+            }
+        });
+        return base.with(courses, removed);
+    }
+
+    /** The overall and per-professor aggregates of one course's sections; null if there are none. */
+    private GradeSnapshot.Course aggregateCourse(List<SectionGrade> rows) {
         if (rows.isEmpty()) {
-            return GradeDistributionResponse.builder()
-                    .subject(subject).courseNumber(courseNumber)
-                    .hasData(false)
-                    .instructorQueried(instructor)
-                    .instructorHasTaught(false)
-                    .build();
+            return null;
         }
 
         List<String> termsIncluded = rows.stream().map(SectionGrade::getTerm)
@@ -396,40 +693,42 @@ public class GradeDistributionService {
         for (SectionGrade s : rows) {
             byProf.computeIfAbsent(keyOrUnknown(s), k -> new ArrayList<>()).add(s);
         }
-        List<GradeAggregate> professors = byProf.values().stream()
-                .map(group -> aggregate(group.get(0).getProfessor(), group))
+        Map<String, GradeAggregate> byKey = new LinkedHashMap<>();
+        byProf.forEach((key, group) -> byKey.put(key, aggregate(group.get(0).getProfessor(), group)));
+        List<GradeAggregate> professors = byKey.values().stream()
                 .sorted(Comparator.comparingInt(GradeAggregate::getTotal).reversed())
                 .toList();
 
-        GradeAggregate matched = null;
-        if (instructor != null && !instructor.isBlank()) {
-            String wanted = normalizeName(instructor);
-            matched = byProf.entrySet().stream()
-                    .filter(e -> e.getKey().equals(wanted))
-                    .findFirst()
-                    .map(e -> aggregate(e.getValue().get(0).getProfessor(), e.getValue()))
-                    .orElse(null);
-        }
-
-        return GradeDistributionResponse.builder()
-                .subject(subject).courseNumber(courseNumber)
-                .hasData(true)
-                .termsIncluded(termsIncluded)
-                .overall(overall)
-                .professors(professors)
-                .instructorQueried(instructor)
-                .instructorHasTaught(matched != null)
-                .instructorDistribution(matched)
-                .build();
+        return new GradeSnapshot.Course(termsIncluded, overall, professors, byKey);
+    }
+
+    /** The normalized key to match {@code instructor} against, or null when none was given. */
+    private String professorKey(String instructor) {
+        if (instructor == null || instructor.isBlank()) {
+            return null;
+        }
+        String key = professorKeys.get(instructor);
+        if (key == null) {
+            key = normalizeName(instructor);
+            if (professorKeys.size() < MAX_CACHED_NAMES) {
+                professorKeys.put(instructor, key);
+            }
+        }
+        return key;
     }
 
     /** Coverage snapshot for the admin panel. */
     public Map<String, Object> getStatus() {
+        Segments current = segments;
         Map<String, Object> status = new LinkedHashMap<>();
-        int total = index.values().stream().mapToInt(List::size).sum();
+        int total = current.terms().stream().mapToInt(GradeIndexFile::size).sum();
         status.put("totalSections", total);
-        status.put("terms", loadedTerms);
-        status.put("lastUpdated", lastUpdated == null ? null : lastUpdated.toString());
+        status.put("terms", current.terms().stream().map(GradeIndexFile::term).toList());
+        status.put("lastUpdated", current.lastUpdated() == null ? null : current.lastUpdated().toString());
+        status.put("lastLoadMs", lastLoadMillis);
+        status.put("termLoadMs", termLoadMillis);
+        status.put("cachedCourses", current.snapshot().courseCount());
+        status.put("cachedJsonBytes", current.snapshot().jsonBytes());
         return status;
     }
 
@@ -479,16 +778,12 @@ public class GradeDistributionService {
                 .withdrawCount(withdraw)
                 .sectionsCount(rows.size())
                 .termsTaught(terms)
-                .gradeCounts(counts)
+                .gradeCounts(Collections.unmodifiableMap(counts))
                 .build();
     }
 
     // ---------------------------------------------------------------- helpers
 
-    private static String key(String subject, String courseNumber) {
-        return (subject == null ? "" : subject.toUpperCase()) + "|" + (courseNumber == null ? "" : courseNumber);
-    }
-
     private static void add(Map<String, Integer> m, String k, int v) {
         m.merge(k, v, Integer::sum);
     }
@@ -0,0 +1,309 @@
+package edu.gsu.pantherwatch.pantherwatch.service;
+
+import edu.gsu.pantherwatch.pantherwatch.model.SectionGrade;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One term's grade sections in a compact binary file ({@value #EXTENSION}),
+ * memory-mapped read-only, so loading a term is an mmap rather than a CSV parse
+ * and the sections live in the page cache instead of the heap as objects.
+ *
+ * Layout (big-endian), written once per term from the parsed CSVs:
+ * <pre>
+ *   header   magic "GDX1", version, rows, courses, strings, term (string id)
+ *   columns  {@link #INT_COLUMNS} int[rows], one after another; string fields
+ *            hold a dictionary id (-1 for null), counts hold the count
+ *   gpa      double[rows], NaN for null
+ *   courses  (key id, first row, row count) per "SUBJECT|NUMBER", sorted by key
+ *   strings  int[strings + 1] byte offsets, then the UTF-8 bytes
+ * </pre>
+ * Rows are grouped by course, so a lookup is a binary search over the course
+ * table and materializes only that course's few sections. Subjects, professors
+ * and instruction methods repeat heavily and are stored once each.
+ * Thread-safe: reads only use absolute positions.
+ */
+final class GradeIndexFile {
+
+    static final String EXTENSION = ".gdx";
+
+    private static final int MAGIC = 0x47445831;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 6 * Integer.BYTES;
+
+    // Int columns, in file order.
+    private static final int CRN = 0;
+    private static final int SUBJECT = 1;
+    private static final int COURSE_NUMBER = 2;
+    private static final int SECTION = 3;
+    private static final int PROFESSOR = 4;
+    private static final int PROFESSOR_KEY = 5;
+    private static final int METHOD = 6;
+    private static final int GRADE_A = 7;
+    private static final int GRADE_B = 8;
+    private static final int GRADE_C = 9;
+    private static final int GRADE_D = 10;
+    private static final int GRADE_F = 11;
+    private static final int A_PLUS = 12;
+    private static final int A_FLAT = 13;
+    private static final int A_MINUS = 14;
+    private static final int B_PLUS = 15;
+    private static final int B_FLAT = 16;
+    private static final int B_MINUS = 17;
+    private static final int C_PLUS = 18;
+    private static final int C_FLAT = 19;
+    private static final int C_MINUS = 20;
+    private static final int WF = 21;
+    private static final int WITHDRAW = 22;
+    private static final int OTHER = 23;
+    private static final int TOTAL = 24;
+    private static final int INT_COLUMNS = 25;
+
+    private final ByteBuffer buffer;
+    private final int rows;
+    private final int courses;
+    private final int strings;
+    private final String term;
+    private final int gpaAt;
+    private final int coursesAt;
+    private final int stringOffsetsAt;
+    private final int stringBytesAt;
+
+    private GradeIndexFile(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a grade index file");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported grade index version " + buffer.getInt(4));
+        }
+        this.rows = buffer.getInt(8);
+        this.courses = buffer.getInt(12);
+        this.strings = buffer.getInt(16);
+        this.gpaAt = HEADER_BYTES + rows * INT_COLUMNS * Integer.BYTES;
+        this.coursesAt = gpaAt + rows * Double.BYTES;
+        this.stringOffsetsAt = coursesAt + courses * 3 * Integer.BYTES;
+        this.stringBytesAt = stringOffsetsAt + (strings + 1) * Integer.BYTES;
+        if (rows < 0 || courses < 0 || strings < 0 || stringBytesAt > buffer.capacity()
+                || stringBytesAt + buffer.getInt(stringOffsetsAt + strings * Integer.BYTES) != buffer.capacity()) {
+            throw new IOException("Truncated or corrupt grade index file");
+        }
+        this.term = string(buffer.getInt(20));
+    }
+
+    /** Maps {@code path}; throws if it is not a complete index file of this version. */
+    static GradeIndexFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new GradeIndexFile(mapped);
+        }
+    }
+
+    /** Writes {@code sections} of {@code term} to {@code path}, replacing it atomically. */
+    static void write(Path path, String term, List<SectionGrade> sections) throws IOException {
+        List<SectionGrade> sorted = new ArrayList<>(sections);
+        sorted.sort(Comparator.comparing((SectionGrade s) -> courseKey(s.getSubject(), s.getCourseNumber())));
+
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        int termId = intern(dictionary, term);
+        int[][] columns = new int[INT_COLUMNS][sorted.size()];
+        double[] gpa = new double[sorted.size()];
+        List<int[]> courseTable = new ArrayList<>();
+        String currentKey = null;
+        for (int r = 0; r < sorted.size(); r++) {
+            SectionGrade s = sorted.get(r);
+            String key = courseKey(s.getSubject(), s.getCourseNumber());
+            if (!key.equals(currentKey)) {
+                courseTable.add(new int[]{intern(dictionary, key), r, 0});
+                currentKey = key;
+            }
+            courseTable.get(courseTable.size() - 1)[2]++;
+            columns[CRN][r] = intern(dictionary, s.getCrn());
+            columns[SUBJECT][r] = intern(dictionary, s.getSubject());
+            columns[COURSE_NUMBER][r] = intern(dictionary, s.getCourseNumber());
+            columns[SECTION][r] = intern(dictionary, s.getSection());
+            columns[PROFESSOR][r] = intern(dictionary, s.getProfessor());
+            columns[PROFESSOR_KEY][r] = intern(dictionary, s.getProfessorKey());
+            columns[METHOD][r] = intern(dictionary, s.getInstructionMethod());
+            columns[GRADE_A][r] = s.getGradeA();
+            columns[GRADE_B][r] = s.getGradeB();
+            columns[GRADE_C][r] = s.getGradeC();
+            columns[GRADE_D][r] = s.getGradeD();
+            columns[GRADE_F][r] = s.getGradeF();
+            columns[A_PLUS][r] = s.getAPlus();
+            columns[A_FLAT][r] = s.getAFlat();
+            columns[A_MINUS][r] = s.getAMinus();
+            columns[B_PLUS][r] = s.getBPlus();
+            columns[B_FLAT][r] = s.getBFlat();
+            columns[B_MINUS][r] = s.getBMinus();
+            columns[C_PLUS][r] = s.getCPlus();
+            columns[C_FLAT][r] = s.getCFlat();
+            columns[C_MINUS][r] = s.getCMinus();
+            columns[WF][r] = s.getWf();
+            columns[WITHDRAW][r] = s.getWithdrawCount();
+            columns[OTHER][r] = s.getOtherCount();
+            columns[TOTAL][r] = s.getTotal();
+            gpa[r] = s.getGpa() != null ? s.getGpa() : Double.NaN;
+        }
+
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(sorted.size());
+            out.writeInt(courseTable.size());
+            out.writeInt(dictionary.size());
+            out.writeInt(termId);
+            for (int[] column : columns) {
+                for (int value : column) {
+                    out.writeInt(value);
+                }
+            }
+            for (double value : gpa) {
+                out.writeDouble(value);
+            }
+            for (int[] course : courseTable) {
+                out.writeInt(course[0]);
+                out.writeInt(course[1]);
+                out.writeInt(course[2]);
+            }
+            List<byte[]> encoded = new ArrayList<>(dictionary.size());
+            int offset = 0;
+            for (String value : dictionary.keySet()) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                encoded.add(bytes);
+                out.writeInt(offset);
+                offset += bytes.length;
+            }
+            out.writeInt(offset);
+            for (byte[] bytes : encoded) {
+                out.write(bytes);
+            }
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** The course lookup key, "SUBJECT|NUMBER" with the subject upper-cased. */
+    static String courseKey(String subject, String courseNumber) {
+        return (subject == null ? "" : subject.toUpperCase()) + "|" + (courseNumber == null ? "" : courseNumber);
+    }
+
+    String term() {
+        return term;
+    }
+
+    int size() {
+        return rows;
+    }
+
+    /** The sections of one course, materialized; empty if the term has none. */
+    List<SectionGrade> sections(String subject, String courseNumber) {
+        return sections(courseKey(subject, courseNumber));
+    }
+
+    /** As {@link #sections(String, String)}, by {@link #courseKey}. */
+    List<SectionGrade> sections(String key) {
+        int low = 0;
+        int high = courses - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int at = coursesAt + mid * 3 * Integer.BYTES;
+            int cmp = string(buffer.getInt(at)).compareTo(key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                int first = buffer.getInt(at + Integer.BYTES);
+                int count = buffer.getInt(at + 2 * Integer.BYTES);
+                List<SectionGrade> sections = new ArrayList<>(count);
+                for (int r = first; r < first + count; r++) {
+                    sections.add(row(r));
+                }
+                return sections;
+            }
+        }
+        return List.of();
+    }
+
+    /** Every course key in the term, in key order. */
+    List<String> courseKeys() {
+        List<String> keys = new ArrayList<>(courses);
+        for (int c = 0; c < courses; c++) {
+            keys.add(string(buffer.getInt(coursesAt + c * 3 * Integer.BYTES)));
+        }
+        return keys;
+    }
+
+    private SectionGrade row(int r) {
+        double gpa = buffer.getDouble(gpaAt + r * Double.BYTES);
+        SectionGrade s = SectionGrade.builder()
+                .term(term)
+                .crn(stringAt(CRN, r))
+                .subject(stringAt(SUBJECT, r))
+                .courseNumber(stringAt(COURSE_NUMBER, r))
+                .section(stringAt(SECTION, r))
+                .professor(stringAt(PROFESSOR, r))
+                .professorKey(stringAt(PROFESSOR_KEY, r))
+                .instructionMethod(stringAt(METHOD, r))
+                .gradeA(intAt(GRADE_A, r))
+                .gradeB(intAt(GRADE_B, r))
+                .gradeC(intAt(GRADE_C, r))
+                .gradeD(intAt(GRADE_D, r))
+                .gradeF(intAt(GRADE_F, r))
+                .wf(intAt(WF, r))
+                .withdrawCount(intAt(WITHDRAW, r))
+                .otherCount(intAt(OTHER, r))
+                .total(intAt(TOTAL, r))
+                .gpa(Double.isNaN(gpa) ? null : gpa)
+                .build();
+        s.setAPlus(intAt(A_PLUS, r));
+        s.setAFlat(intAt(A_FLAT, r));
+        s.setAMinus(intAt(A_MINUS, r));
+        s.setBPlus(intAt(B_PLUS, r));
+        s.setBFlat(intAt(B_FLAT, r));
+        s.setBMinus(intAt(B_MINUS, r));
+        s.setCPlus(intAt(C_PLUS, r));
+        s.setCFlat(intAt(C_FLAT, r));
+        s.setCMinus(intAt(C_MINUS, r));
+        return s;
+    }
+
+    private int intAt(int column, int r) {
+        return buffer.getInt(HEADER_BYTES + (column * rows + r) * Integer.BYTES);
+    }
+
+    private String stringAt(int column, int r) {
+        return string(intAt(column, r));
+    }
+
+    private String string(int id) {
+        if (id < 0) {
+            return null;
+        }
+        int start = buffer.getInt(stringOffsetsAt + id * Integer.BYTES);
+        int end = buffer.getInt(stringOffsetsAt + (id + 1) * Integer.BYTES);
+        byte[] bytes = new byte[end - start];
+        buffer.get(stringBytesAt + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int intern(Map<String, Integer> dictionary, String value) {
+        return value == null ? -1 : dictionary.computeIfAbsent(value, v -> dictionary.size());
+    }
+}
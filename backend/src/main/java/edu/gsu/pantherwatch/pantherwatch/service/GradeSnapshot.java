@@ -0,0 +1,173 @@
+package edu.gsu.pantherwatch.pantherwatch.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.gsu.pantherwatch.pantherwatch.api.GradeAggregate;
+import edu.gsu.pantherwatch.pantherwatch.api.GradeDistributionResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Every loaded course's grade answer, computed once per (re)load: the overall
+ * and per-professor aggregates, and the JSON they serialize to. A lookup is a
+ * map get; the JSON response is the cached course body plus the few fields that
+ * echo the request. Immutable; a reload builds a new one and swaps it in whole.
+ */
+final class GradeSnapshot {
+
+    static final GradeSnapshot EMPTY = new GradeSnapshot(Map.of());
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** The course body fields of a course with no grade history. */
+    private static final byte[] NO_DATA = body(null, null, null);
+
+    private static final byte[] SUBJECT = ascii("{\"subject\":");
+    private static final byte[] COURSE_NUMBER = ascii(",\"courseNumber\":");
+    private static final byte[] INSTRUCTOR_QUERIED = ascii(",\"instructorQueried\":");
+    private static final byte[] HAS_TAUGHT = ascii(",\"instructorHasTaught\":");
+    private static final byte[] DISTRIBUTION = ascii(",\"instructorDistribution\":");
+    private static final byte[] TRUE = ascii("true");
+    private static final byte[] FALSE = ascii("false");
+    private static final byte[] NULL = ascii("null");
+
+    /** One course's precomputed answer. Aggregates are shared; do not modify them. */
+    static final class Course {
+        private final List<String> termsIncluded;
+        private final GradeAggregate overall;
+        private final List<GradeAggregate> professors;
+        private final Map<String, GradeAggregate> byProfessorKey;
+        private final byte[] body;
+        private final Map<String, byte[]> professorJson = new LinkedHashMap<>();
+
+        /**
+         * @param byProfessorKey each professor's aggregate by normalized name key,
+         *                       ordered as {@code professors}
+         */
+        Course(List<String> termsIncluded, GradeAggregate overall, List<GradeAggregate> professors,
+               Map<String, GradeAggregate> byProfessorKey) {
+            this.termsIncluded = termsIncluded;
+            this.overall = overall;
+            this.professors = professors;
+            this.byProfessorKey = byProfessorKey;
+            this.body = body(termsIncluded, overall, professors);
+            for (Map.Entry<String, GradeAggregate> e : byProfessorKey.entrySet()) {
+                professorJson.put(e.getKey(), json(e.getValue()));
+            }
+        }
+
+        GradeDistributionResponse response(String subject, String courseNumber, String instructor,
+                                           String professorKey) {
+            GradeAggregate matched = professorKey == null ? null : byProfessorKey.get(professorKey);
+            return GradeDistributionResponse.builder()
+                    .subject(subject).courseNumber(courseNumber)
+                    .hasData(true)
+                    .termsIncluded(termsIncluded)
+                    .overall(overall)
+                    .professors(professors)
+                    .instructorQueried(instructor)
+                    .instructorHasTaught(matched != null)
+                    .instructorDistribution(matched)
+                    .build();
+        }
+
+        int jsonBytes() {
+            return body.length + professorJson.values().stream().mapToInt(b -> b.length).sum();
+        }
+    }
+
+    private final Map<String, Course> courses;
+
+    /** @param courses by {@link GradeIndexFile#courseKey} */
+    GradeSnapshot(Map<String, Course> courses) {
+        this.courses = Map.copyOf(courses);
+    }
+
+    /** A copy with {@code replaced} courses put and {@code removed} ones dropped; this one is unchanged. */
+    GradeSnapshot with(Map<String, Course> replaced, Collection<String> removed) {
+        Map<String, Course> next = new HashMap<>(courses);
+        next.keySet().removeAll(removed);
+        next.putAll(replaced);
+        return new GradeSnapshot(next);
+    }
+
+    int courseCount() {
+        return courses.size();
+    }
+
+    long jsonBytes() {
+        return courses.values().stream().mapToLong(Course::jsonBytes).sum();
+    }
+
+    /**
+     * The response for a course, matching {@code professorKey} (a normalized name,
+     * or null when no instructor was asked about) against its professors.
+     */
+    GradeDistributionResponse response(String subject, String courseNumber, String instructor,
+                                       String professorKey) {
+        Course course = courses.get(GradeIndexFile.courseKey(subject, courseNumber));
+        if (course == null) {
+            return GradeDistributionResponse.builder()
+                    .subject(subject).courseNumber(courseNumber)
+                    .hasData(false)
+                    .instructorQueried(instructor)
+                    .instructorHasTaught(false)
+                    .build();
+        }
+        return course.response(subject, courseNumber, instructor, professorKey);
+    }
+
+    /** {@link #response} serialized, from the cached course and professor JSON. */
+    byte[] json(String subject, String courseNumber, String instructor, String professorKey) {
+        Course course = courses.get(GradeIndexFile.courseKey(subject, courseNumber));
+        byte[] body = course == null ? NO_DATA : course.body;
+        byte[] matched = course == null || professorKey == null ? null : course.professorJson.get(professorKey);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length + (matched == null ? 0 : matched.length) + 160);
+        out.writeBytes(SUBJECT);
+        out.writeBytes(json(subject));
+        out.writeBytes(COURSE_NUMBER);
+        out.writeBytes(json(courseNumber));
+        out.write(',');
+        out.writeBytes(body);
+        out.writeBytes(INSTRUCTOR_QUERIED);
+        out.writeBytes(json(instructor));
+        out.writeBytes(HAS_TAUGHT);
+        out.writeBytes(matched != null ? TRUE : FALSE);
+        out.writeBytes(DISTRIBUTION);
+        out.writeBytes(matched != null ? matched : NULL);
+        out.write('}');
+        return out.toByteArray();
+    }
+
+    /** The course fields of a response, in response field order, without the enclosing braces. */
+    private static byte[] body(List<String> termsIncluded, GradeAggregate overall, List<GradeAggregate> professors) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("hasData", overall != null);
+        fields.put("termsIncluded", termsIncluded);
+        fields.put("overall", overall);
+        fields.put("professors", professors);
+        byte[] object = json(fields);
+        return Arrays.copyOfRange(object, 1, object.length - 1);
+    }
+
+    private static byte[] json(Object value) {
+        try {
+            return MAPPER.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,46 @@
+package edu.gsu.pantherwatch.pantherwatch.service;
+
+import edu.gsu.pantherwatch.pantherwatch.model.NotificationOutbox;
+
+import java.util.List;
+
+/**
+ * A way of delivering queued notifications to users: email, a webhook, a local
+ * file for offline runs. Every enabled channel gets its own outbox row per
+ * notification, so each is retried on its own schedule, and its own delivery
+ * pool, so a slow channel never holds up the others.
+ */
+public interface NotificationChannel {
+
+    /** Stable id stored on outbox rows; never rename a channel that has rows queued. */
+    String name();
+
+    boolean isEnabled();
+
+    /** Batches this channel may deliver at once. */
+    int concurrency();
+
+    /** Most rows handed to one {@link #deliver} call. */
+    int batchSize();
+
+    /** Attempts before a row is given up on as FAILED. */
+    int maxAttempts();
+
+    /**
+     * How many more messages the channel could send right now, e.g. its remaining
+     * send quota. A recipient's rows in one batch are one message, so this counts
+     * recipients, not rows.
+     */
+    default long headroom() {
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Delivers {@code batch}, in which each recipient's rows are adjacent.
+     *
+     * @return one entry per row, in order: null if delivered (or deliberately
+     *         skipped), an {@link EmailQuotaExceededException} to defer the row
+     *         without spending an attempt, otherwise the error to retry on
+     */
+    List<Exception> deliver(List<NotificationOutbox> batch);
+}
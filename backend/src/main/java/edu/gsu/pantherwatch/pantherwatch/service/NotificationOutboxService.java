@@ -0,0 +1,234 @@
+package edu.gsu.pantherwatch.pantherwatch.service;
+
+import edu.gsu.pantherwatch.pantherwatch.api.CourseData;
+import edu.gsu.pantherwatch.pantherwatch.model.NotificationOutbox;
+import edu.gsu.pantherwatch.pantherwatch.model.WatchedClass;
+import edu.gsu.pantherwatch.pantherwatch.repository.NotificationOutboxRepository;
+import edu.gsu.pantherwatch.pantherwatch.repository.WatchedClassRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The durable queue between the course watcher and notification delivery.
+ *
+ * The watcher enqueues and stamps watches as notified in one transaction, so a
+ * crash can neither lose a notification nor send one twice for the same opening
+ * (each carries an idempotency key). Each enabled {@link NotificationChannel} gets
+ * its own row per notification, so channels succeed and retry independently.
+ * Delivery workers claim due rows with
+ * {@code FOR UPDATE SKIP LOCKED}, so any number of workers and replicas drain the
+ * queue without stepping on each other, and failed sends are retried with
+ * exponential backoff until {@code maxAttempts}.
+ *
+ * New notifications become due {@code digest-window} after they are queued, so
+ * openings for the same user found by checks a few seconds apart are delivered
+ * together, as one digest email.
+ */
+@Service
+@Slf4j
+public class NotificationOutboxService {
+
+    /** Watch ids per set-based UPDATE; keeps the IN list well under driver bind limits. */
+    private static final int UPDATE_CHUNK = 500;
+    private static final Duration BASE_BACKOFF = Duration.ofSeconds(30);
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final WatchedClassRepository watchedClassRepository;
+    private final List<NotificationChannel> channels;
+    private final Duration digestWindow;
+
+    public NotificationOutboxService(
+            NotificationOutboxRepository outboxRepository,
+            WatchedClassRepository watchedClassRepository,
+            List<NotificationChannel> channels,
+            @Value("${pantherwatch.notifications.digest-window-seconds:15}") long digestWindowSeconds) {
+        this.outboxRepository = outboxRepository;
+        this.watchedClassRepository = watchedClassRepository;
+        this.channels = channels.stream().filter(NotificationChannel::isEnabled).toList();
+        if (this.channels.isEmpty()) {
+            log.warn("No notification channel is enabled; seat openings will be marked notified but not delivered");
+        }
+        this.digestWindow = Duration.ofSeconds(Math.max(0, digestWindowSeconds));
+    }
+
+    /**
+     * Marks each of {@code watches} notified and queues a seat-opening notification
+     * for it on every enabled channel. {@code sections} maps CRN to what the check
+     * saw. Watches a concurrent check (another replica, or one overlapping a lease
+     * handoff) stamped first are skipped, so each opening is queued once. Returns
+     * how many outbox rows were queued.
+     */
+    @Transactional
+    public int enqueueClassAvailability(List<WatchedClass> candidates, Map<String, CourseData> sections) {
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> claimed = new HashSet<>();
+        List<Long> candidateIds = candidates.stream().map(WatchedClass::getId).toList();
+        for (int from = 0; from < candidateIds.size(); from += UPDATE_CHUNK) {
+            claimed.addAll(watchedClassRepository.markNotified(
+                    candidateIds.subList(from, Math.min(candidateIds.size(), from + UPDATE_CHUNK)), now));
+        }
+        List<WatchedClass> watches = candidates.stream().filter(w -> claimed.contains(w.getId())).toList();
+        // markNotified bypasses the persistence context; keep these copies in step with their rows.
+        for (WatchedClass watch : watches) {
+            watch.setNotifiedAt(now);
+            watch.setUpdatedAt(now);
+        }
+        if (watches.size() < candidates.size()) {
+            log.info("Skipped {} watch(es) another check already notified", candidates.size() - watches.size());
+        }
+        if (watches.isEmpty()) {
+            return 0;
+        }
+        int size = watches.size();
+        String[] keys = new String[size];
+        String[] recipients = new String[size];
+        String[] names = new String[size];
+        String[] terms = new String[size];
+        String[] crns = new String[size];
+        String[] subjects = new String[size];
+        String[] courseNumbers = new String[size];
+        String[] titles = new String[size];
+        for (int i = 0; i < size; i++) {
+            WatchedClass watch = watches.get(i);
+            CourseData section = sections.get(watch.getCrn());
+            String email = watch.getUser().getEmail();
+            keys[i] = classAvailabilityKey(watch.getId(), watch.getNotifyGeneration());
+            recipients[i] = email;
+            names[i] = watch.getUser().getName() != null ? watch.getUser().getName() : email.split("@")[0];
+            terms[i] = watch.getTerm();
+            crns[i] = watch.getCrn();
+            subjects[i] = section.getSubject();
+            courseNumbers[i] = section.getCourseNumber();
+            titles[i] = section.getCourseTitle();
+        }
+        int queued = 0;
+        for (NotificationChannel channel : channels) {
+            String[] channelKeys = new String[size];
+            for (int i = 0; i < size; i++) {
+                channelKeys[i] = channelKey(keys[i], channel.name());
+            }
+            queued += outboxRepository.enqueueClassAvailability(channel.name(), channelKeys, recipients, names,
+                    terms, crns, subjects, courseNumbers, titles, now, now.plus(digestWindow));
+        }
+        return queued;
+    }
+
+    /** Enabled channels, in the order rows are queued for them. */
+    public List<NotificationChannel> getChannels() {
+        return channels;
+    }
+
+    /**
+     * Claims up to {@code limit} due notifications of {@code channel} for this
+     * worker, from no more than {@code recipients} recipients, oldest first.
+     */
+    @Transactional
+    public List<NotificationOutbox> claim(String channel, int limit, long recipients) {
+        LocalDateTime now = LocalDateTime.now();
+        // Every row has a recipient, so a limit within the cap needs no per-recipient query.
+        List<Long> ids = recipients >= limit
+                ? outboxRepository.lockDue(channel, now, limit)
+                : outboxRepository.lockDueForRecipients(channel, now, limit, (int) recipients);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        outboxRepository.markClaimed(ids, NotificationOutbox.Status.SENDING, now);
+        return outboxRepository.findAllById(ids);
+    }
+
+    public void markSent(List<NotificationOutbox> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        List<Long> ids = entries.stream().map(NotificationOutbox::getId).toList();
+        outboxRepository.markSent(ids, NotificationOutbox.Status.SENT, LocalDateTime.now());
+    }
+
+    /** Schedules another attempt, or gives up after {@code maxAttempts}. Returns true if it will be retried. */
+    public boolean markFailed(NotificationOutbox entry, Exception error, int maxAttempts) {
+        String message = truncate(error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName());
+        // attempts already counts the attempt that just failed.
+        if (entry.getAttempts() >= maxAttempts) {
+            outboxRepository.reschedule(entry.getId(), NotificationOutbox.Status.FAILED, entry.getNextAttemptAt(),
+                    message);
+            return false;
+        }
+        LocalDateTime next = LocalDateTime.now().plus(backoff(entry.getAttempts()));
+        outboxRepository.reschedule(entry.getId(), NotificationOutbox.Status.PENDING, next, message);
+        return true;
+    }
+
+    /**
+     * Re-queues notifications that were claimed but not attempted (the email quota
+     * held them back) for {@code delay} from now; the claim does not count as an
+     * attempt.
+     */
+    public void defer(List<NotificationOutbox> entries, Duration delay, String reason) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        List<Long> ids = entries.stream().map(NotificationOutbox::getId).toList();
+        outboxRepository.defer(ids, NotificationOutbox.Status.PENDING, LocalDateTime.now().plus(delay),
+                truncate(reason));
+    }
+
+    /** Re-queues notifications whose worker died mid-send. */
+    public int reclaimStale(Duration claimTimeout) {
+        LocalDateTime now = LocalDateTime.now();
+        return outboxRepository.reclaimStale(NotificationOutbox.Status.PENDING, NotificationOutbox.Status.SENDING,
+                now.minus(claimTimeout), now);
+    }
+
+    public int purgeFinished(Duration retention) {
+        return outboxRepository.deleteFinishedBefore(
+                Set.of(NotificationOutbox.Status.SENT, NotificationOutbox.Status.FAILED),
+                LocalDateTime.now().minus(retention));
+    }
+
+    public Map<String, Long> countsByStatus() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (NotificationOutbox.Status status : NotificationOutbox.Status.values()) {
+            counts.put(status.name().toLowerCase(), outboxRepository.countByStatus(status));
+        }
+        return counts;
+    }
+
+    private static String truncate(String message) {
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    /** Delay before retry number {@code attempts}: 30s, doubling, capped at an hour. */
+    static Duration backoff(int attempts) {
+        int doublings = Math.min(Math.max(attempts - 1, 0), 20);
+        Duration delay = BASE_BACKOFF.multipliedBy(1L << doublings);
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    /** Email keeps the bare key, so rows queued before channels existed still dedupe. */
+    static String channelKey(String key, String channel) {
+        return EmailNotificationChannel.NAME.equals(channel) ? key : key + ":" + channel;
+    }
+
+    /**
+     * One key per watch per opening: the opening is the watch's re-arm generation,
+     * which every check, retry or replica seeing that opening reads alike.
+     */
+    static String classAvailabilityKey(Long watchId, int generation) {
+        return "class-availability:" + watchId + ":g" + generation;
+    }
+}
@@ -0,0 +1,67 @@
+package edu.gsu.pantherwatch.pantherwatch.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs background fan-out that blocks on outbound I/O: watch-cycle course checks
+ * and grade refreshes.
+ *
+ * With {@code spring.threads.virtual.enabled} (which also moves Tomcat and the
+ * scheduler onto virtual threads) each task gets its own virtual thread, so
+ * thousands of checks can wait on GoSolar at once; how many actually reach an
+ * upstream is capped by {@link UpstreamLimiters}. Otherwise a fixed platform pool
+ * is used. Deliberately not an {@code Executor} bean, which would displace Spring
+ * Boot's own task executor.
+ */
+@Component
+@Slf4j
+public class OutboundExecutor {
+
+    private static final AtomicInteger PLATFORM_THREAD_COUNTER = new AtomicInteger();
+
+    private final boolean virtual;
+    private final ExecutorService executor;
+
+    public OutboundExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtual,
+            @Value("${pantherwatch.outbound.platform-threads:32}") int platformThreads) {
+        this.virtual = virtual;
+        this.executor = virtual
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("outbound-", 0).factory())
+                : Executors.newFixedThreadPool(platformThreads, r -> {
+                    Thread t = new Thread(r, "outbound-" + PLATFORM_THREAD_COUNTER.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        log.info("Outbound I/O executor using {}", virtual ? "virtual threads" : platformThreads + " platform threads");
+    }
+
+    public CompletableFuture<Void> runAsync(Runnable task) {
+        return CompletableFuture.runAsync(task, executor);
+    }
+
+    public void execute(Runnable task) {
+        executor.execute(task);
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("virtualThreads", virtual);
+        return status;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -2,15 +2,20 @@ package edu.gsu.pantherwatch.pantherwatch.service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.http.HttpHeaders;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import edu.gsu.pantherwatch.pantherwatch.api.CourseData;
@@ -19,20 +24,27 @@ import edu.gsu.pantherwatch.pantherwatch.api.GetSubjectResponse;
 import edu.gsu.pantherwatch.pantherwatch.api.RetrieveCourseInfoRequest;
 import edu.gsu.pantherwatch.pantherwatch.api.RetrieveCourseInfoResponse;
 import edu.gsu.pantherwatch.pantherwatch.api.Terms;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Service
 public class PantherWatchService {
     private static final Logger logger = LoggerFactory.getLogger(PantherWatchService.class);
     private static final Duration TIMEOUT = Duration.ofMillis(10000);
+    /** Upper bound on a whole search: a pooled attempt plus the fresh-session fallback. */
+    private static final Duration SEARCH_TIMEOUT = Duration.ofSeconds(30);
     private static final String SORT_COLUMN = "subjectDescription";
     private static final String SORT_DIRECTION = "asc";
     private static final int DEFAULT_OFFSET = 1;
     private static final int DEFAULT_MAX = 10;
     private final WebClient webClient;
+    private final CourseSnapshotCache searchCache;
+    private final CourseSearchCoalescer searchCoalescer;
+    private final GoSolarSessionPool sessionPool;
+    private final UpstreamLimiter goSolarLimiter;
     private static final String SEARCH_PATH = "/term/search";
     private static final String RETRIEVE_INFO_PATH = "/searchResults/searchResults";
-    private static final String RESET_PATH = "/classSearch/resetDataForm";
+    static final String RESET_PATH = "/classSearch/resetDataForm";
     private static final String TERMS_PATH = "/classSearch/getTerms";
     private static final String SUBJECT_PATH = "/classSearch/get_subject";
 
@@ -42,8 +54,23 @@ public class PantherWatchService {
     private volatile List<Terms> cachedTerms = Collections.emptyList();
     private volatile Instant termsCachedAt = Instant.EPOCH;
 
-    public PantherWatchService(WebClient webClient) {
+    @Autowired
+    public PantherWatchService(WebClient webClient, CourseSnapshotCache searchCache,
+                               CourseSearchCoalescer searchCoalescer, GoSolarSessionPool sessionPool,
+                               UpstreamLimiters upstreamLimiters) {
         this.webClient = webClient;
+        this.searchCache = searchCache;
+        this.searchCoalescer = searchCoalescer;
+        this.sessionPool = sessionPool;
+        this.goSolarLimiter = upstreamLimiters == null ? null : upstreamLimiters.goSolar();
+    }
+
+    /**
+     * Uncached, uncoalesced service that declares a fresh session for every search,
+     * for callers (and tests) that must always hit GoSolar.
+     */
+    public PantherWatchService(WebClient webClient) {
+        this(webClient, null, null, null, null);
     }
 
     public static boolean isViewOnlyDescription(String description) {
@@ -84,36 +111,174 @@ public class PantherWatchService {
         return termCode != null && getViewOnlyTermCodes().contains(termCode);
     }
 
+    /**
+     * Course search, served from the shared {@link CourseSnapshotCache} when a recent
+     * snapshot of the same search exists; on a miss, concurrent identical searches
+     * share one GoSolar round trip via the {@link CourseSearchCoalescer}. The
+     * returned response may be shared with other callers and must not be mutated.
+     */
     public RetrieveCourseInfoResponse searchCourses(RetrieveCourseInfoRequest request) {
-        logger.info("Starting course search for subject={} course={} term={} level={}",
-                request.getTxtSubject(), request.getTxtCourseNumber(), request.getTxtTerm(), request.getTxtLevel());
-
-        // A single attempt is sufficient: the non-pooling WebClient guarantees a fresh
-        // connection per request, so the F5 always issues the BIGipServer affinity cookie
-        // and the declare+search pair stays pinned to the same GoSolar node. The empty
-        // response below is null-safety for a genuine GoSolar failure, not a retry.
-        try {
-            String sessionCookies = declareTermAndGetCookies(request.getTxtTerm());
-            RetrieveCourseInfoResponse body = executeCourseSearch(request, sessionCookies);
-            if (body != null && body.isSuccess() && body.getData() != null) {
-                return body;
+        return searchCoursesReactive(request).block();
+    }
+
+    /**
+     * Non-blocking {@link #searchCourses}. Never errors: a failed search emits an
+     * empty {@code success:false} response, as the blocking variant returns.
+     */
+    public Mono<RetrieveCourseInfoResponse> searchCoursesReactive(RetrieveCourseInfoRequest request) {
+        return searchCoursesReactive(request, null);
+    }
+
+    /**
+     * {@link #searchCourses}, but never answered from a cached snapshot older than
+     * {@code maxAge}; an older one is fetched again, which also refreshes it for
+     * everyone else.
+     */
+    public RetrieveCourseInfoResponse searchCourses(RetrieveCourseInfoRequest request, Duration maxAge) {
+        return searchCoursesReactive(request, maxAge).block();
+    }
+
+    private Mono<RetrieveCourseInfoResponse> searchCoursesReactive(RetrieveCourseInfoRequest request,
+                                                                   Duration maxAge) {
+        CourseSearchKey key = CourseSearchKey.of(request);
+        Supplier<Mono<RetrieveCourseInfoResponse>> upstream = searchCoalescer == null
+                ? () -> fetchCourses(request)
+                : () -> searchCoalescer.executeReactive(key, () -> fetchCourses(request));
+        if (searchCache == null) {
+            return upstream.get();
+        }
+        return maxAge == null ? searchCache.getReactive(key, upstream) : searchCache.getReactive(key, maxAge, upstream);
+    }
+
+    /** GoSolar-facing counters for the admin panel. */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (searchCache != null) {
+            status.put("searchCache", searchCache.getStatus());
+        }
+        if (searchCoalescer != null) {
+            status.put("searchCoalescing", searchCoalescer.getStatus());
+        }
+        if (sessionPool != null) {
+            status.put("sessionPool", sessionPool.getStatus());
+        }
+        if (goSolarLimiter != null) {
+            status.put("concurrency", goSolarLimiter.getStatus());
+        }
+        return status;
+    }
+
+    private Mono<RetrieveCourseInfoResponse> fetchCourses(RetrieveCourseInfoRequest request) {
+        return limited(() -> {
+                    logger.info("Starting course search for subject={} course={} term={} level={}",
+                            request.getTxtSubject(), request.getTxtCourseNumber(), request.getTxtTerm(),
+                            request.getTxtLevel());
+
+                    // A pooled session may have been forgotten by its node (data:null). It is
+                    // evicted on release and the search falls through to a freshly declared one.
+                    Mono<RetrieveCourseInfoResponse> pooled = sessionPool != null && sessionPool.isEnabled()
+                            ? searchOnPooledSession(request)
+                            : Mono.empty();
+                    return pooled.switchIfEmpty(Mono.defer(() -> searchOnFreshSession(request)))
+                            .map(body -> fillMissingTerm(body, request.getTxtTerm()));
+                })
+                .timeout(SEARCH_TIMEOUT)
+                .onErrorResume(e -> {
+                    logger.error("Course search failed for subject={} course={} term={}",
+                            request.getTxtSubject(), request.getTxtCourseNumber(), request.getTxtTerm(), e);
+                    return Mono.empty();
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    RetrieveCourseInfoResponse empty = new RetrieveCourseInfoResponse();
+                    empty.setSuccess(false);
+                    empty.setData(new CourseData[0]);
+                    return empty;
+                }));
+    }
+
+    /** Runs a GoSolar call under the shared GoSolar concurrency cap (one permit per search). */
+    private <T> Mono<T> limited(Supplier<Mono<T>> call) {
+        return goSolarLimiter == null ? Mono.defer(call) : goSolarLimiter.limit(call);
+    }
+
+    private <T> Flux<T> limitedMany(Supplier<Flux<T>> call) {
+        return goSolarLimiter == null ? Flux.defer(call) : goSolarLimiter.limitMany(call);
+    }
+
+    private Mono<RetrieveCourseInfoResponse> searchOnPooledSession(RetrieveCourseInfoRequest request) {
+        return sessionPool.lease(request.getTxtTerm(), this::declareTermAndGetCookies)
+                .flatMap(session -> executeCourseSearch(session.client(), request, session.cookies())
+                        .doOnSuccess(body -> sessionPool.release(session, hasData(body), this::limited))
+                        .doOnError(e -> sessionPool.release(session, false, this::limited))
+                        .doOnCancel(() -> sessionPool.release(session, false, this::limited)))
+                .flatMap(body -> {
+                    if (hasData(body)) {
+                        return Mono.just(body);
+                    }
+                    logger.info("Pooled GoSolar session returned no data for term={}; retrying on a fresh session",
+                            request.getTxtTerm());
+                    return Mono.<RetrieveCourseInfoResponse>empty();
+                })
+                .onErrorResume(e -> {
+                    logger.warn("Pooled course search failed for term={} ({}); retrying on a fresh session",
+                            request.getTxtTerm(), e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    // A single fresh attempt is sufficient: the non-pooling WebClient guarantees a fresh
+    // connection per request, so the F5 always issues the BIGipServer affinity cookie
+    // and the declare+search pair stays pinned to the same GoSolar node. The empty
+    // response fetchCourses falls back to is null-safety for a genuine GoSolar failure,
+    // not a retry.
+    private Mono<RetrieveCourseInfoResponse> searchOnFreshSession(RetrieveCourseInfoRequest request) {
+        return declareTermAndGetCookies(webClient, request.getTxtTerm())
+                .flatMap(sessionCookies -> executeCourseSearch(webClient, request, sessionCookies))
+                .flatMap(body -> {
+                    if (hasData(body)) {
+                        return Mono.just(body);
+                    }
+                    logger.warn("Course search returned no data (success={}, dataNull={})",
+                            body.isSuccess(), body.getData() == null);
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Keeps recently searched terms stocked with declared sessions. Each top-up
+     * declaration takes a GoSolar permit like a search does (a search's own
+     * declaration runs under the search's permit), so the adaptive cap sees it.
+     */
+    @Scheduled(fixedDelayString = "${pantherwatch.gosolar.session-pool.maintain-ms:30000}")
+    public void maintainSessionPool() {
+        if (sessionPool != null) {
+            sessionPool.maintain((client, term) -> limited(() -> declareTermAndGetCookies(client, term)));
+        }
+    }
+
+    /**
+     * Stamps sections GoSolar returned without a term with the searched one. Done
+     * here, while the response has a single owner, because once it is cached and
+     * coalesced every reader shares the same objects.
+     */
+    private static RetrieveCourseInfoResponse fillMissingTerm(RetrieveCourseInfoResponse body, String term) {
+        if (body.getData() != null && term != null) {
+            for (CourseData course : body.getData()) {
+                if (course != null && (course.getTerm() == null || course.getTerm().isBlank())) {
+                    course.setTerm(term);
+                }
             }
-            logger.warn("Course search returned no data (success={}, dataNull={})",
-                    body != null && body.isSuccess(), body == null || body.getData() == null);
-        } catch (RuntimeException e) {
-            logger.error("Course search failed for subject={} course={} term={}",
-                    request.getTxtSubject(), request.getTxtCourseNumber(), request.getTxtTerm(), e);
         }
+        return body;
+    }
 
-        RetrieveCourseInfoResponse empty = new RetrieveCourseInfoResponse();
-        empty.setSuccess(false);
-        empty.setData(new CourseData[0]);
-        return empty;
+    private static boolean hasData(RetrieveCourseInfoResponse body) {
+        return body != null && body.isSuccess() && body.getData() != null;
     }
 
-    private String declareTermAndGetCookies(String term) {
+    private Mono<String> declareTermAndGetCookies(WebClient client, String term) {
         logger.debug("Declaring term {} to obtain session cookies", term);
-        return webClient
+        return client
                 .post()
                 .uri(uriBuilder -> uriBuilder
                     .path(SEARCH_PATH)
@@ -143,56 +308,42 @@ public class PantherWatchService {
                                 ));
                     }
                 })
-                .block(TIMEOUT);
+                .timeout(TIMEOUT);
     }
 
-    public boolean resetRequestForm() {
-        logger.info("Resetting remote class search form");
-        try {
-            return Boolean.TRUE.equals(webClient
-                    .get()
-                    .uri(uriBuilder -> uriBuilder
-                        .path(RESET_PATH)
-                        .build())
-                    .exchangeToMono(response -> {
-                        if (response.statusCode().is2xxSuccessful()) {
-                            return Mono.just(true);
-                        }
-                        logger.warn("Reset form returned status: {}", response.statusCode().value());
-                        return Mono.just(false);
-                    })
-                    .block(TIMEOUT));
-        } catch (RuntimeException e) {
-            logger.warn("Reset form failed (non-fatal): {}", e.getMessage());
-            return false;
-        }
+    public List<Terms> fetchAvailableTerms() {
+        List<Terms> terms = fetchAvailableTermsReactive().collectList().block();
+        return terms == null ? Collections.emptyList() : terms;
     }
 
-    public List<Terms> fetchAvailableTerms() {
-        Terms[] termsArray = webClient
+    public Flux<Terms> fetchAvailableTermsReactive() {
+        return limitedMany(() -> webClient
                 .get()
                 .uri(uriBuilder -> uriBuilder
                     .path(TERMS_PATH)
                     .queryParam("offset", DEFAULT_OFFSET)
                     .queryParam("max", DEFAULT_MAX)
                     .build())
-                .exchangeToMono(response -> {
+                .exchangeToFlux(response -> {
                     if (response.statusCode().is2xxSuccessful()) {
-                        return response.bodyToMono(Terms[].class);
+                        return response.bodyToFlux(Terms.class);
                     } else {
                         return response.createException()
-                                .flatMap(exception -> Mono.error(
+                                .flatMapMany(exception -> Flux.error(
                                     new RuntimeException("HTTP error fetching terms: " + response.statusCode().value())
                                 ));
                     }
                 })
-                .block(TIMEOUT);
-
-        return termsArray == null ? Collections.emptyList() : Arrays.asList(termsArray);
+                .timeout(TIMEOUT));
     }
 
     public List<GetSubjectResponse> getSubjects(GetSubjectRequest request) {
-        GetSubjectResponse[] subjectsArray = webClient
+        List<GetSubjectResponse> subjects = getSubjectsReactive(request).collectList().block();
+        return subjects == null ? Collections.emptyList() : subjects;
+    }
+
+    public Flux<GetSubjectResponse> getSubjectsReactive(GetSubjectRequest request) {
+        return limitedMany(() -> webClient
                 .get()
                 .uri(uriBuilder -> uriBuilder
                     .path(SUBJECT_PATH)
@@ -201,24 +352,23 @@ public class PantherWatchService {
                     .queryParam("offset", request.getOffset())
                     .queryParam("max", request.getMax())
                     .build())
-                .exchangeToMono(response -> {
+                .exchangeToFlux(response -> {
                     if (response.statusCode().is2xxSuccessful()) {
-                        return response.bodyToMono(GetSubjectResponse[].class);
+                        return response.bodyToFlux(GetSubjectResponse.class);
                     } else {
                         return response.createException()
-                                .flatMap(exception -> Mono.error(
+                                .flatMapMany(exception -> Flux.error(
                                     new RuntimeException("HTTP error fetching subjects: " + response.statusCode().value())
                                 ));
                     }
                 })
-                .block(TIMEOUT);
-
-        return subjectsArray == null ? Collections.emptyList() : Arrays.asList(subjectsArray);
+                .timeout(TIMEOUT));
     }
 
-    private RetrieveCourseInfoResponse executeCourseSearch(RetrieveCourseInfoRequest request, String cookies) {
+    private Mono<RetrieveCourseInfoResponse> executeCourseSearch(WebClient client, RetrieveCourseInfoRequest request,
+                                                                 String cookies) {
         logger.debug("Performing course search with cookies: {}", summarizeCookieHeader(cookies));
-        return webClient
+        return client
                 .get()
                 .uri(uriBuilder -> {
                     uriBuilder
@@ -256,7 +406,7 @@ public class PantherWatchService {
                                 ));
                     }
                 })
-                .block(TIMEOUT);
+                .timeout(TIMEOUT);
     }
 
     private String summarizeCookies(List<String> cookieHeaders) {
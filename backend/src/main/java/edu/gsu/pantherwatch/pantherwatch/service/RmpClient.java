@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -57,6 +58,9 @@ public class RmpClient {
             .build();
     private final ObjectMapper mapper = new ObjectMapper();
 
+    @Autowired
+    private UpstreamLimiters upstreamLimiters;
+
     @Value("${pantherwatch.rmp.endpoint:https://www.ratemyprofessors.com/graphql}")
     private String endpoint;
 
@@ -115,7 +119,8 @@ public class RmpClient {
                     .POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)))
                     .build();
 
-            HttpResponse<String> resp = http.send(req, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> resp = upstreamLimiters.rmp()
+                    .call(() -> http.send(req, HttpResponse.BodyHandlers.ofString()));
             if (resp.statusCode() != 200) {
                 log.warn("RMP search '{}' returned status {}", text, resp.statusCode());
                 return teachers;
@@ -0,0 +1,75 @@
+package edu.gsu.pantherwatch.pantherwatch.service;
+
+import edu.gsu.pantherwatch.pantherwatch.api.CourseData;
+import edu.gsu.pantherwatch.pantherwatch.model.SectionState;
+import edu.gsu.pantherwatch.pantherwatch.repository.SectionStateRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Remembers what each watched section looked like at its last check, so the
+ * watcher only touches watch rows for sections that changed. Reads and writes are
+ * one statement each per course check, however many sections or watchers it has.
+ */
+@Service
+@RequiredArgsConstructor
+public class SectionStateService {
+
+    private final SectionStateRepository sectionStateRepository;
+
+    /** CRNs of {@code sections} whose seats, waitlist or enrollment differ from the stored state, or that have none. */
+    public Set<String> changedSections(String term, Collection<CourseData> sections) {
+        if (sections.isEmpty()) {
+            return Set.of();
+        }
+        List<String> crns = sections.stream().map(CourseData::getCourseReferenceNumber).toList();
+        Map<String, SectionState> previous = new HashMap<>();
+        for (SectionState state : sectionStateRepository.findByTermAndCrnIn(term, crns)) {
+            previous.put(state.getCrn(), state);
+        }
+        return changed(previous, sections);
+    }
+
+    /** Stores {@code sections} as the latest state of their term. */
+    public void record(String term, Collection<CourseData> sections) {
+        if (sections.isEmpty()) {
+            return;
+        }
+        int size = sections.size();
+        String[] crns = new String[size];
+        Integer[] seats = new Integer[size];
+        Integer[] waits = new Integer[size];
+        Integer[] enrollments = new Integer[size];
+        int i = 0;
+        for (CourseData section : sections) {
+            crns[i] = section.getCourseReferenceNumber();
+            seats[i] = section.getSeatsAvailable();
+            waits[i] = section.getWaitCount();
+            enrollments[i] = section.getEnrollment();
+            i++;
+        }
+        sectionStateRepository.upsertAll(term, crns, seats, waits, enrollments, LocalDateTime.now());
+    }
+
+    static Set<String> changed(Map<String, SectionState> previous, Collection<CourseData> sections) {
+        Set<String> changed = new HashSet<>();
+        for (CourseData section : sections) {
+            SectionState state = previous.get(section.getCourseReferenceNumber());
+            if (state == null
+                    || state.getSeatsAvailable() != section.getSeatsAvailable()
+                    || state.getWaitCount() != section.getWaitCount()
+                    || state.getEnrollment() != section.getEnrollment()) {
+                changed.add(section.getCourseReferenceNumber());
+            }
+        }
+        return changed;
+    }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.gsu.pantherwatch.pantherwatch.api.SyllabusInfo;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -45,6 +46,9 @@ public class SyllabusService {
     private final ObjectMapper mapper = new ObjectMapper();
     private final ConcurrentHashMap<String, TermData> cache = new ConcurrentHashMap<>();
 
+    @Autowired
+    private UpstreamLimiters upstreamLimiters;
+
     /** Base of the public syllabi repository (CloudFront). */
     @Value("${pantherwatch.syllabi.base:https://cdn.gsu.edu/static/syllabi-public/}")
     private String base;
@@ -84,7 +88,8 @@ public class SyllabusService {
                     .GET()
                     .build();
 
-            HttpResponse<String> resp = http.send(req, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> resp = upstreamLimiters.syllabi()
+                    .call(() -> http.send(req, HttpResponse.BodyHandlers.ofString()));
             if (resp.statusCode() != 200) {
                 log.warn("Syllabi term {} returned status {}", term, resp.statusCode());
                 return cacheFallback(term, cached);
@@ -0,0 +1,309 @@
+package edu.gsu.pantherwatch.pantherwatch.service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Caps concurrent requests to one upstream host.
+ *
+ * Permits are handed out as futures rather than by parking a thread, so the same
+ * limiter serves blocking callers ({@link #call}, cheap on virtual threads) and
+ * reactive pipelines ({@link #limit}) without either holding a thread while
+ * queued. Waiters are served FIFO, give up after {@code acquireTimeout}, and are
+ * shed outright once {@code maxQueued} are already waiting.
+ *
+ * An {@link #adaptive} limiter also moves its limit with what the upstream can
+ * take (AIMD): every {@code limit} fast, successful calls made while the limiter
+ * is at least half busy raise it by one; an error, or a call slower than
+ * {@code latencyThreshold}, cuts it by a quarter, at most once per threshold
+ * window so one slow burst counts as one signal.
+ */
+public final class UpstreamLimiter {
+
+    private static final double BACKOFF_RATIO = 0.75;
+    /** Weight of the newest sample in the latency moving average. */
+    private static final double LATENCY_EWMA_WEIGHT = 0.1;
+
+    private final String name;
+    private final Duration acquireTimeout;
+    private final int maxQueued;
+    private final boolean adaptive;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+
+    // Guarded by this.
+    private int limit;
+    private int active;
+    private int successesSinceIncrease;
+    private long lastDecreaseAt;
+    private double avgLatencyNanos;
+    private final ArrayDeque<CompletableFuture<Permit>> waiters = new ArrayDeque<>();
+
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder increases = new LongAdder();
+    private final LongAdder decreases = new LongAdder();
+
+    /** A fixed limit with an unbounded queue. */
+    public UpstreamLimiter(String name, int limit, Duration acquireTimeout) {
+        this(name, limit, Integer.MAX_VALUE, acquireTimeout);
+    }
+
+    /** A fixed limit. */
+    public UpstreamLimiter(String name, int limit, int maxQueued, Duration acquireTimeout) {
+        this(name, limit, limit, limit, null, maxQueued, acquireTimeout);
+    }
+
+    private UpstreamLimiter(String name, int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold,
+                            int maxQueued, Duration acquireTimeout) {
+        this.name = name;
+        this.adaptive = latencyThreshold != null;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.latencyThresholdNanos = adaptive ? latencyThreshold.toNanos() : Long.MAX_VALUE;
+        this.lastDecreaseAt = System.nanoTime() - latencyThresholdNanos;
+        this.maxQueued = maxQueued;
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    /** A limit that starts at {@code initialLimit} and adapts between {@code minLimit} and {@code maxLimit}. */
+    public static UpstreamLimiter adaptive(String name, int initialLimit, int minLimit, int maxLimit,
+                                           Duration latencyThreshold, int maxQueued, Duration acquireTimeout) {
+        return new UpstreamLimiter(name, initialLimit, minLimit, maxLimit, latencyThreshold, maxQueued,
+                acquireTimeout);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Completes with a permit once one is free, or exceptionally with a
+     * {@link TimeoutException} after {@code acquireTimeout} (or a
+     * {@link RejectedExecutionException} right away when the queue is full). The
+     * permit must be closed; cancelling the future before it completes gives up
+     * the place in the queue.
+     */
+    public CompletableFuture<Permit> acquire() {
+        CompletableFuture<Permit> waiter;
+        synchronized (this) {
+            if (active < limit && waiters.isEmpty()) {
+                active++;
+                acquired.increment();
+                return CompletableFuture.completedFuture(new Permit());
+            }
+            if (waiters.size() >= maxQueued) {
+                shed.increment();
+                return CompletableFuture.failedFuture(
+                        new RejectedExecutionException(name + " queue is full (" + maxQueued + " waiting)"));
+            }
+            waiter = new CompletableFuture<>();
+            waiters.addLast(waiter);
+        }
+        waiter.orTimeout(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((permit, error) -> {
+                    if (error == null) {
+                        return;
+                    }
+                    if (error instanceof TimeoutException) {
+                        rejected.increment();
+                    }
+                    synchronized (this) {
+                        waiters.remove(waiter);
+                    }
+                });
+        return waiter;
+    }
+
+    /** Runs blocking {@code work} under a permit, waiting (blocking) for one if needed. */
+    public <T> T call(Callable<T> work) throws Exception {
+        Permit permit = acquireBlocking();
+        boolean failed = true;
+        try {
+            T result = work.call();
+            failed = false;
+            return result;
+        } finally {
+            permit.close(failed);
+        }
+    }
+
+    /**
+     * Subscribes to {@code work} once a permit is free. The permit is returned on
+     * any terminal signal; an error counts as a failed call, a cancellation as
+     * neither success nor failure.
+     */
+    public <T> Mono<T> limit(Supplier<Mono<T>> work) {
+        return Mono.usingWhen(
+                Mono.fromFuture(this::acquire),
+                permit -> work.get(),
+                permit -> Mono.fromRunnable(() -> permit.close(false)),
+                (permit, error) -> Mono.fromRunnable(() -> permit.close(true)),
+                permit -> Mono.fromRunnable(permit::close));
+    }
+
+    /** {@link #limit} for a multi-valued response, holding the permit until it completes. */
+    public <T> Flux<T> limitMany(Supplier<Flux<T>> work) {
+        return Flux.usingWhen(
+                Mono.fromFuture(this::acquire),
+                permit -> work.get(),
+                permit -> Mono.fromRunnable(() -> permit.close(false)),
+                (permit, error) -> Mono.fromRunnable(() -> permit.close(true)),
+                permit -> Mono.fromRunnable(permit::close));
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        synchronized (this) {
+            status.put("adaptive", adaptive);
+            status.put("limit", limit);
+            if (adaptive) {
+                status.put("minLimit", minLimit);
+                status.put("maxLimit", maxLimit);
+                status.put("avgLatencyMs", Math.round(avgLatencyNanos / 1_000_000.0));
+            }
+            status.put("active", active);
+            status.put("queued", waiters.size());
+        }
+        status.put("acquired", acquired.sum());
+        status.put("failures", failures.sum());
+        status.put("rejected", rejected.sum());
+        status.put("shed", shed.sum());
+        if (adaptive) {
+            status.put("increases", increases.sum());
+            status.put("decreases", decreases.sum());
+        }
+        return status;
+    }
+
+    private Permit acquireBlocking() {
+        CompletableFuture<Permit> pending = acquire();
+        try {
+            return pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abandon(pending);
+            throw new IllegalStateException("Interrupted waiting for " + name + " capacity", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(name + " is saturated: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private void abandon(CompletableFuture<Permit> pending) {
+        if (!pending.cancel(false) && !pending.isCompletedExceptionally()) {
+            pending.join().close();
+        }
+    }
+
+    private void release(long latencyNanos, Boolean failed) {
+        synchronized (this) {
+            if (failed != null) {
+                record(latencyNanos, failed);
+            }
+            active--;
+        }
+        grantWaiting();
+    }
+
+    private void record(long latencyNanos, boolean failed) {
+        if (failed) {
+            failures.increment();
+        }
+        if (!adaptive) {
+            return;
+        }
+        avgLatencyNanos = avgLatencyNanos == 0
+                ? latencyNanos
+                : avgLatencyNanos + LATENCY_EWMA_WEIGHT * (latencyNanos - avgLatencyNanos);
+
+        long now = System.nanoTime();
+        if (failed || latencyNanos > latencyThresholdNanos) {
+            successesSinceIncrease = 0;
+            if (now - lastDecreaseAt >= latencyThresholdNanos && limit > minLimit) {
+                limit = Math.max(minLimit, (int) (limit * BACKOFF_RATIO));
+                lastDecreaseAt = now;
+                decreases.increment();
+            }
+            return;
+        }
+        // Only grow when the limit is actually in use; a quiet period says nothing
+        // about how much more the upstream could take.
+        if (active * 2 >= limit && ++successesSinceIncrease >= limit && limit < maxLimit) {
+            limit++;
+            successesSinceIncrease = 0;
+            increases.increment();
+        }
+    }
+
+    private void grantWaiting() {
+        List<CompletableFuture<Permit>> granted = new ArrayList<>();
+        synchronized (this) {
+            while (active < limit && !waiters.isEmpty()) {
+                CompletableFuture<Permit> candidate = waiters.pollFirst();
+                if (!candidate.isDone()) {
+                    active++;
+                    granted.add(candidate);
+                }
+            }
+        }
+        // Completed outside the lock: the waiter's continuation (often the upstream
+        // request itself) runs inline. Losing the race to a timeout or cancel passes
+        // the permit on.
+        for (CompletableFuture<Permit> waiter : granted) {
+            Permit permit = new Permit();
+            if (waiter.complete(permit)) {
+                acquired.increment();
+            } else {
+                permit.close();
+            }
+        }
+    }
+
+    /** A held unit of upstream capacity. Closing it more than once is harmless. */
+    public final class Permit implements AutoCloseable {
+        private final AtomicBoolean released = new AtomicBoolean();
+        private final long grantedAt = System.nanoTime();
+
+        private Permit() {
+        }
+
+        /** Returns the permit without reporting an outcome. */
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                release(0, null);
+            }
+        }
+
+        /** Returns the permit, reporting how the call went. */
+        public void close(boolean failed) {
+            if (released.compareAndSet(false, true)) {
+                release(System.nanoTime() - grantedAt, failed);
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package edu.gsu.pantherwatch.pantherwatch.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One {@link UpstreamLimiter} per external host we call. With virtual threads,
+ * thread count no longer bounds how hard a burst of watch checks or page loads can
+ * hit an upstream, so these caps do.
+ *
+ * GoSolar's limit is adaptive: it is the one upstream every page load and watch
+ * check depends on, and how much it tolerates varies through the term (it slows
+ * and throttles around registration), so no fixed number is right for long.
+ */
+@Component
+public class UpstreamLimiters {
+
+    private final UpstreamLimiter goSolar;
+    private final UpstreamLimiter rmp;
+    private final UpstreamLimiter syllabi;
+    private final UpstreamLimiter apex;
+
+    public UpstreamLimiters(
+            @Value("${pantherwatch.upstream.gosolar.max-concurrency:16}") int goSolarInitial,
+            @Value("${pantherwatch.upstream.gosolar.min-limit:2}") int goSolarMin,
+            @Value("${pantherwatch.upstream.gosolar.max-limit:48}") int goSolarMax,
+            @Value("${pantherwatch.upstream.gosolar.latency-threshold-ms:4000}") long goSolarLatencyThresholdMs,
+            @Value("${pantherwatch.upstream.gosolar.max-queue:500}") int goSolarMaxQueue,
+            @Value("${pantherwatch.upstream.rmp.max-concurrency:4}") int rmpMax,
+            @Value("${pantherwatch.upstream.syllabi.max-concurrency:2}") int syllabiMax,
+            @Value("${pantherwatch.upstream.apex.max-concurrency:${pantherwatch.grades.download-sessions:3}}") int apexMax,
+            @Value("${pantherwatch.upstream.acquire-timeout-seconds:30}") long acquireTimeoutSeconds) {
+        Duration acquireTimeout = Duration.ofSeconds(acquireTimeoutSeconds);
+        this.goSolar = UpstreamLimiter.adaptive("gosolar", goSolarInitial, goSolarMin, goSolarMax,
+                Duration.ofMillis(goSolarLatencyThresholdMs), goSolarMaxQueue, acquireTimeout);
+        this.rmp = new UpstreamLimiter("rmp", rmpMax, acquireTimeout);
+        this.syllabi = new UpstreamLimiter("syllabi", syllabiMax, acquireTimeout);
+        this.apex = new UpstreamLimiter("apex", apexMax, acquireTimeout);
+    }
+
+    public UpstreamLimiter goSolar() {
+        return goSolar;
+    }
+
+    public UpstreamLimiter rmp() {
+        return rmp;
+    }
+
+    public UpstreamLimiter syllabi() {
+        return syllabi;
+    }
+
+    public UpstreamLimiter apex() {
+        return apex;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        for (UpstreamLimiter limiter : new UpstreamLimiter[] {goSolar, rmp, syllabi, apex}) {
+            status.put(limiter.getName(), limiter.getStatus());
+        }
+        return status;
+    }
+}
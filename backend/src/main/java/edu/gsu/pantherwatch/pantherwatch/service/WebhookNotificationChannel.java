@@ -0,0 +1,138 @@
+package edu.gsu.pantherwatch.pantherwatch.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.gsu.pantherwatch.pantherwatch.model.NotificationOutbox;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * POSTs each batch as JSON to {@code pantherwatch.notifications.webhook.url}
+ * (e.g. a push gateway, a chat integration, or a local stub server for load
+ * tests). Enabled when a URL is set. With a {@code secret}, the body is signed
+ * with HMAC-SHA256 in {@value #SIGNATURE_HEADER} so the receiver can verify it.
+ * A non-2xx response fails the whole batch, to be retried.
+ */
+@Component
+public class WebhookNotificationChannel implements NotificationChannel {
+
+    public static final String NAME = "webhook";
+    static final String SIGNATURE_HEADER = "X-PantherWatch-Signature";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpClient http;
+    private final String url;
+    private final String secret;
+    private final Duration timeout;
+    private final int concurrency;
+    private final int batchSize;
+    private final int maxAttempts;
+
+    public WebhookNotificationChannel(
+            @Value("${pantherwatch.notifications.webhook.url:}") String url,
+            @Value("${pantherwatch.notifications.webhook.secret:}") String secret,
+            @Value("${pantherwatch.notifications.webhook.timeout-seconds:10}") long timeoutSeconds,
+            @Value("${pantherwatch.notifications.webhook.concurrency:4}") int concurrency,
+            @Value("${pantherwatch.notifications.webhook.batch-size:50}") int batchSize,
+            @Value("${pantherwatch.notifications.webhook.max-attempts:5}") int maxAttempts) {
+        this.url = url == null ? "" : url.trim();
+        this.secret = secret == null ? "" : secret;
+        this.timeout = Duration.ofSeconds(Math.max(1, timeoutSeconds));
+        this.concurrency = Math.max(1, concurrency);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.http = HttpClient.newBuilder().connectTimeout(this.timeout).build();
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return !url.isEmpty();
+    }
+
+    @Override
+    public int concurrency() {
+        return concurrency;
+    }
+
+    @Override
+    public int batchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public int maxAttempts() {
+        return maxAttempts;
+    }
+
+    @Override
+    public List<Exception> deliver(List<NotificationOutbox> batch) {
+        try {
+            byte[] body = mapper.writeValueAsBytes(Map.of("notifications", payload(batch)));
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                    .timeout(timeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body));
+            if (!secret.isEmpty()) {
+                request.header(SIGNATURE_HEADER, "sha256=" + sign(body));
+            }
+            HttpResponse<Void> response = http.send(request.build(), HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() / 100 != 2) {
+                return Collections.nCopies(batch.size(),
+                        new IOException("Webhook returned HTTP " + response.statusCode()));
+            }
+            return Collections.nCopies(batch.size(), null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Collections.nCopies(batch.size(), e);
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            return Collections.nCopies(batch.size(), e);
+        }
+    }
+
+    /** The JSON shape of each notification; shared with the file channel. */
+    static List<Map<String, Object>> payload(List<NotificationOutbox> batch) {
+        List<Map<String, Object>> notifications = new ArrayList<>(batch.size());
+        for (NotificationOutbox entry : batch) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", entry.getIdempotencyKey());
+            item.put("kind", entry.getKind() != null ? entry.getKind().name() : null);
+            item.put("recipient", entry.getRecipient());
+            item.put("recipientName", entry.getRecipientName());
+            item.put("term", entry.getTerm());
+            item.put("crn", entry.getCrn());
+            item.put("subject", entry.getSubject());
+            item.put("courseNumber", entry.getCourseNumber());
+            item.put("courseTitle", entry.getCourseTitle());
+            item.put("queuedAt", entry.getCreatedAt() != null ? entry.getCreatedAt().toString() : null);
+            notifications.add(item);
+        }
+        return notifications;
+    }
+
+    private String sign(byte[] body) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(body));
+    }
+}
@@ -0,0 +1,141 @@
+package edu.gsu.pantherwatch.pantherwatch.scheduler;
+
+import edu.gsu.pantherwatch.pantherwatch.model.NotificationOutbox;
+import edu.gsu.pantherwatch.pantherwatch.service.NotificationChannel;
+import edu.gsu.pantherwatch.pantherwatch.service.NotificationOutboxService;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** How much a poll claims and how it is split into per-call batches. Pure unit test. */
+class NotificationDeliveryWorkerTest {
+
+    @Test
+    void keepsEachRecipientsRowsInOneBatch() {
+        List<NotificationOutbox> claimed = List.of(
+                row(1, "ada@student.gsu.edu"), row(2, "bob@student.gsu.edu"), row(3, "Ada@student.gsu.edu"),
+                row(4, "cy@student.gsu.edu"), row(5, "bob@student.gsu.edu"));
+
+        List<List<NotificationOutbox>> batches = NotificationDeliveryWorker.batchesByRecipient(claimed, 3);
+
+        assertEquals(2, batches.size());
+        assertEquals(List.of(1L, 3L), ids(batches.get(0)));
+        assertEquals(List.of(2L, 5L, 4L), ids(batches.get(1)));
+    }
+
+    @Test
+    void givesARecipientOverTheBatchSizeABatchOfTheirOwn() {
+        List<NotificationOutbox> claimed = List.of(
+                row(1, "ada@student.gsu.edu"), row(2, "bob@student.gsu.edu"), row(3, "bob@student.gsu.edu"),
+                row(4, "bob@student.gsu.edu"));
+
+        List<List<NotificationOutbox>> batches = NotificationDeliveryWorker.batchesByRecipient(claimed, 2);
+
+        assertEquals(List.of(1L), ids(batches.get(0)));
+        assertEquals(List.of(2L, 3L, 4L), ids(batches.get(1)));
+    }
+
+    @Test
+    void claimsOnlyWhatTheHeadroomCanSendWhenTheBacklogIsLarger() throws InterruptedException {
+        List<NotificationOutbox> backlog = List.of(
+                row(1, "ada@student.gsu.edu"), row(2, "bob@student.gsu.edu"), row(3, "Ada@student.gsu.edu"),
+                row(4, "cy@student.gsu.edu"), row(5, "bob@student.gsu.edu"), row(6, "di@student.gsu.edu"));
+        RecordingChannel channel = new RecordingChannel(2, 3);
+        FakeOutbox outbox = new FakeOutbox(channel, backlog);
+        NotificationDeliveryWorker worker = new NotificationDeliveryWorker(outbox, null, 300);
+
+        worker.poll();
+
+        assertEquals(2L, outbox.recipientLimits.get(0));
+        assertTrue(channel.done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(1L, 3L, 2L, 5L), channel.delivered);
+        // Nothing was claimed only to be handed back; the rest wait in place.
+        assertEquals(0, outbox.deferred);
+        assertEquals(List.of(4L, 6L), ids(outbox.pending));
+        worker.shutdown();
+    }
+
+    private static NotificationOutbox row(long id, String recipient) {
+        return NotificationOutbox.builder().id(id).recipient(recipient).build();
+    }
+
+    private static List<Long> ids(List<NotificationOutbox> batch) {
+        return batch.stream().map(NotificationOutbox::getId).toList();
+    }
+
+    /** Claims like {@code lockDueForRecipients}: every row of the first recipients due, up to the limit. */
+    private static final class FakeOutbox extends NotificationOutboxService {
+        final List<NotificationOutbox> pending;
+        final List<Long> recipientLimits = new ArrayList<>();
+        int deferred;
+
+        FakeOutbox(NotificationChannel channel, List<NotificationOutbox> backlog) {
+            super(null, null, List.of(channel), 0);
+            this.pending = new ArrayList<>(backlog);
+        }
+
+        @Override
+        public synchronized List<NotificationOutbox> claim(String channel, int limit, long recipients) {
+            recipientLimits.add(recipients);
+            Set<String> taken = new HashSet<>();
+            List<NotificationOutbox> claimed = new ArrayList<>();
+            for (NotificationOutbox entry : pending) {
+                String recipient = entry.getRecipient().toLowerCase();
+                if (claimed.size() < limit && (taken.contains(recipient) || taken.size() < recipients)) {
+                    taken.add(recipient);
+                    claimed.add(entry);
+                }
+            }
+            pending.removeAll(claimed);
+            return claimed;
+        }
+
+        @Override
+        public void defer(List<NotificationOutbox> entries, Duration delay, String reason) {
+            deferred += entries.size();
+        }
+
+        @Override
+        public void markSent(List<NotificationOutbox> entries) {
+        }
+    }
+
+    private static final class RecordingChannel implements NotificationChannel {
+        final long headroom;
+        final int batchSize;
+        final List<Long> delivered = new CopyOnWriteArrayList<>();
+        final CountDownLatch done = new CountDownLatch(1);
+
+        RecordingChannel(long headroom, int batchSize) {
+            this.headroom = headroom;
+            this.batchSize = batchSize;
+        }
+
+        @Override public String name() { return "test"; }
+        @Override public boolean isEnabled() { return true; }
+        @Override public int concurrency() { return 1; }
+        @Override public int batchSize() { return batchSize; }
+        @Override public int maxAttempts() { return 3; }
+        @Override public long headroom() { return headroom; }
+
+        @Override
+        public List<Exception> deliver(List<NotificationOutbox> batch) {
+            batch.forEach(entry -> delivered.add(entry.getId()));
+            if (delivered.size() == 4) {
+                done.countDown();
+            }
+            return Collections.nCopies(batch.size(), null);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package edu.gsu.pantherwatch.pantherwatch.scheduler;
+
+import edu.gsu.pantherwatch.pantherwatch.api.CourseData;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static edu.gsu.pantherwatch.pantherwatch.scheduler.WatchPriority.Proximity.FAR;
+import static edu.gsu.pantherwatch.pantherwatch.scheduler.WatchPriority.Proximity.NEAR;
+import static edu.gsu.pantherwatch.pantherwatch.scheduler.WatchPriority.Proximity.OPEN;
+import static edu.gsu.pantherwatch.pantherwatch.scheduler.WatchPriority.Proximity.UNKNOWN;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WatchPriorityTest {
+
+    private final WatchPriority priority = new WatchPriority(Duration.ofSeconds(60), Duration.ofSeconds(30),
+            Duration.ofMinutes(30), Duration.ofMinutes(5));
+
+    @Test
+    void classifiesSectionsByHowCloseTheyAreToOpening() {
+        assertEquals(OPEN, WatchPriority.proximity(3, 0));
+        assertEquals(NEAR, WatchPriority.proximity(0, 0));
+        assertEquals(NEAR, WatchPriority.proximity(0, 2));
+        assertEquals(NEAR, WatchPriority.proximity(1, 12));
+        assertEquals(FAR, WatchPriority.proximity(0, 15));
+    }
+
+    @Test
+    void groupTakesItsNearestSection() {
+        assertEquals(NEAR, WatchPriority.proximity(List.of(section(0, 20), section(0, 1), section(4, 0))));
+        assertEquals(OPEN, WatchPriority.proximity(List.of(section(0, 20), section(4, 0))));
+        assertEquals(UNKNOWN, WatchPriority.proximity(List.of()));
+    }
+
+    @Test
+    void hotCoursesArePolledEveryThirtyToSixtySeconds() {
+        assertEquals(Duration.ofSeconds(60), priority.interval(NEAR, 1, false, false));
+        assertEquals(Duration.ofSeconds(40), priority.interval(NEAR, 3, false, false));
+        assertEquals(Duration.ofSeconds(30), priority.interval(NEAR, 50, false, false));
+    }
+
+    @Test
+    void coldAndClosedCoursesBackOff() {
+        assertEquals(Duration.ofMinutes(5), priority.interval(FAR, 1, false, false));
+        assertEquals(Duration.ofMinutes(10), priority.interval(FAR, 1, true, false));
+        assertEquals(Duration.ofMinutes(30), priority.interval(FAR, 1, true, true));
+        assertEquals(Duration.ofMinutes(4), priority.interval(NEAR, 1, false, true));
+    }
+
+    private static CourseData section(int seats, int waitCount) {
+        CourseData section = new CourseData();
+        section.setSeatsAvailable(seats);
+        section.setWaitCount(waitCount);
+        return section;
+    }
+}
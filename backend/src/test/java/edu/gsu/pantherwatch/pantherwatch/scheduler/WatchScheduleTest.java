@@ -0,0 +1,85 @@
+package edu.gsu.pantherwatch.pantherwatch.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Staggering, budget and no-overlap rules of the watch schedule. Pure unit test. */
+class WatchScheduleTest {
+
+    private static final Instant START = Instant.parse("2026-08-10T12:00:00Z");
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void spreadsGroupsAcrossTheInterval() {
+        WatchSchedule schedule = new WatchSchedule(Duration.ofMinutes(5), 10_000, 10_000, 0);
+        schedule.updateRoster(roster(1000), START);
+
+        // Walk the interval minute by minute: every minute should see roughly a fifth.
+        int total = 0;
+        for (int minute = 1; minute <= 5; minute++) {
+            int dispatched = schedule.takeDue(START.plus(Duration.ofMinutes(minute)), minute * 60 * SECOND).size();
+            assertTrue(dispatched > 120 && dispatched < 280, "minute " + minute + " dispatched " + dispatched);
+            total += dispatched;
+        }
+        assertEquals(1000, total);
+    }
+
+    @Test
+    void neverRedispatchesAGroupStillInFlight() {
+        WatchSchedule schedule = new WatchSchedule(Duration.ofSeconds(30), 600, 10, 0);
+        schedule.updateRoster(roster(1), START);
+
+        Instant later = START.plus(Duration.ofMinutes(10));
+        List<WatchSchedule.Group> first = schedule.takeDue(later, 600 * SECOND);
+        assertEquals(1, first.size());
+        assertEquals(0, schedule.takeDue(later.plusSeconds(60), 660 * SECOND).size());
+
+        schedule.completed(first.get(0), later.plusSeconds(90));
+        assertEquals(1, schedule.takeDue(later.plusSeconds(90), 690 * SECOND).size());
+    }
+
+    @Test
+    void capsDispatchByBudgetAndConcurrency() {
+        WatchSchedule budgeted = new WatchSchedule(Duration.ofSeconds(1), 60, 100, 0);
+        budgeted.updateRoster(roster(50), START);
+        // Burst capacity is ten seconds of budget: 60/min -> 10 checks.
+        assertEquals(10, budgeted.takeDue(START.plusSeconds(5), 0).size());
+        assertEquals(2, budgeted.takeDue(START.plusSeconds(7), 2 * SECOND).size());
+
+        WatchSchedule narrow = new WatchSchedule(Duration.ofSeconds(1), 6000, 3, 0);
+        narrow.updateRoster(roster(50), START);
+        assertEquals(3, narrow.takeDue(START.plusSeconds(5), 0).size());
+    }
+
+    @Test
+    void keepsCadenceAndDropsUnwatchedGroups() {
+        WatchSchedule schedule = new WatchSchedule(Duration.ofMinutes(5), 600, 10, 0);
+        schedule.updateRoster(roster(2), START);
+        Instant due = START.plus(Duration.ofMinutes(5));
+        List<WatchSchedule.Group> checked = schedule.takeDue(due, 300 * SECOND);
+        assertEquals(2, checked.size());
+
+        WatchSchedule.Group group = checked.get(0);
+        Instant scheduledAt = group.nextDueAt;
+        schedule.completed(group, due.plusSeconds(3));
+        assertEquals(scheduledAt.plus(Duration.ofMinutes(5)), group.nextDueAt);
+
+        schedule.updateRoster(List.of(new WatchSchedule.Group("202608", "CSC", "1000", 3)), due);
+        assertEquals(1, schedule.size());
+    }
+
+    private static List<WatchSchedule.Group> roster(int size) {
+        List<WatchSchedule.Group> groups = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            groups.add(new WatchSchedule.Group("202608", "CSC", String.valueOf(1000 + i), 1));
+        }
+        return groups;
+    }
+}
@@ -0,0 +1,59 @@
+package edu.gsu.pantherwatch.pantherwatch.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Shard assignment across watcher replicas. Pure unit test; leasing itself needs Postgres. */
+class WatcherCoordinatorTest {
+
+    private static final int SHARDS = 64;
+
+    @Test
+    void everyShardGoesToExactlyOneLiveNode() {
+        List<String> nodes = List.of("api-1-a1b2c3d4", "api-2-e5f6a7b8", "api-3-c9d0e1f2");
+        Set<Integer> seen = new HashSet<>();
+        for (String node : nodes) {
+            Set<Integer> mine = WatcherCoordinator.assignedShards(nodes, node, SHARDS);
+            for (int shard : mine) {
+                assertTrue(seen.add(shard), "shard " + shard + " assigned twice");
+            }
+            assertTrue(mine.size() > 10, node + " got only " + mine.size() + " shards");
+        }
+        assertEquals(SHARDS, seen.size());
+    }
+
+    @Test
+    void nodeJoiningOnlyTakesShardsForItself() {
+        List<String> before = List.of("api-1", "api-2");
+        List<String> after = List.of("api-1", "api-2", "api-3");
+        for (String node : before) {
+            Set<Integer> previously = WatcherCoordinator.assignedShards(before, node, SHARDS);
+            Set<Integer> now = WatcherCoordinator.assignedShards(after, node, SHARDS);
+            // Existing nodes only lose shards (to the newcomer); none move between them.
+            assertTrue(previously.containsAll(now), node + " gained shards when another node joined");
+        }
+        assertEquals(SHARDS, WatcherCoordinator.assignedShards(List.of("api-1"), "api-1", SHARDS).size());
+    }
+
+    @Test
+    void shardOfIsStableAndInRange() {
+        for (int i = 0; i < 1000; i++) {
+            String key = "202608|CSC|" + (1000 + i);
+            int shard = WatcherCoordinator.shardOf(key, SHARDS);
+            assertTrue(shard >= 0 && shard < SHARDS);
+            assertEquals(shard, WatcherCoordinator.shardOf(key, SHARDS));
+        }
+    }
+
+    @Test
+    void ownsEverythingWhenCoordinationIsDisabled() {
+        WatcherCoordinator coordinator = new WatcherCoordinator(null, null, false, SHARDS, 30, "solo");
+        assertTrue(coordinator.owns("202608|CSC|1301"));
+    }
+}
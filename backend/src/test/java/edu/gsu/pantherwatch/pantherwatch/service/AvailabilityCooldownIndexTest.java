@@ -0,0 +1,50 @@
+package edu.gsu.pantherwatch.pantherwatch.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Cooldown lookups and bucketed expiry of the availability dedupe index. Pure unit test. */
+class AvailabilityCooldownIndexTest {
+
+    private static final long MINUTE = 60_000L;
+    private static final long T0 = 1_000_000 * MINUTE;
+
+    private final AvailabilityCooldownIndex index =
+            new AvailabilityCooldownIndex(Duration.ofHours(6), Duration.ofMinutes(10));
+
+    @Test
+    void matchesRecipientTermAndCrnWithinTheCooldown() {
+        index.record("Ada@student.gsu.edu", "202608", "12345", T0);
+
+        assertTrue(index.contains("ada@student.gsu.edu", "202608", "12345", T0 + 5 * 60 * MINUTE));
+        assertFalse(index.contains("ada@student.gsu.edu", "202608", "12345", T0 + 6 * 60 * MINUTE));
+        assertFalse(index.contains("ada@student.gsu.edu", "202701", "12345", T0));
+        assertFalse(index.contains("ada@student.gsu.edu", "202608", "54321", T0));
+        assertFalse(index.contains("bob@student.gsu.edu", "202608", "12345", T0));
+    }
+
+    @Test
+    void rowsWithoutATermMatchAnyTerm() {
+        index.record("ada@student.gsu.edu", null, "12345", T0);
+
+        assertTrue(index.contains("ada@student.gsu.edu", "202608", "12345", T0 + MINUTE));
+    }
+
+    @Test
+    void evictionDropsOnlyExpiredSends() {
+        index.record("ada@student.gsu.edu", "202608", "12345", T0);
+        index.record("bob@student.gsu.edu", "202608", "12345", T0);
+        // Bob is emailed again later; his newer send must survive the old bucket's eviction.
+        index.record("bob@student.gsu.edu", "202608", "12345", T0 + 4 * 60 * MINUTE);
+
+        index.evictExpired(T0 + 7 * 60 * MINUTE);
+
+        assertEquals(1, index.size());
+        assertTrue(index.contains("bob@student.gsu.edu", "202608", "12345", T0 + 7 * 60 * MINUTE));
+    }
+}
@@ -0,0 +1,83 @@
+package edu.gsu.pantherwatch.pantherwatch.service;
+
+import edu.gsu.pantherwatch.pantherwatch.api.CourseData;
+import edu.gsu.pantherwatch.pantherwatch.api.RetrieveCourseInfoRequest;
+import edu.gsu.pantherwatch.pantherwatch.api.RetrieveCourseInfoResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CourseSearchCoalescerTest {
+
+    private final CourseSearchCoalescer coalescer = new CourseSearchCoalescer();
+
+    private static final CourseSearchKey KEY = CourseSearchKey.of(RetrieveCourseInfoRequest.builder()
+            .txtTerm("202608").txtSubject("CSC").txtCourseNumber("1301").build());
+
+    @Test
+    void concurrentIdenticalSearchesShareOneUpstreamCall() throws Exception {
+        int callers = 8;
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        RetrieveCourseInfoResponse result = new RetrieveCourseInfoResponse();
+        result.setSuccess(true);
+        result.setData(new CourseData[0]);
+
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<RetrieveCourseInfoResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                futures.add(pool.submit(() -> coalescer.execute(KEY, () -> {
+                    upstreamCalls.incrementAndGet();
+                    await(release);
+                    return result;
+                })));
+            }
+            // Wait until every follower has attached to the leader's flight.
+            for (int i = 0; i < 200 && (long) coalescer.getStatus().get("collapsed") < callers - 1; i++) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<RetrieveCourseInfoResponse> f : futures) {
+                assertSame(result, f.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(1L, coalescer.getStatus().get("upstreamSearches"));
+        assertEquals((long) callers - 1, coalescer.getStatus().get("collapsed"));
+        assertEquals(0, coalescer.getStatus().get("inFlight"));
+    }
+
+    @Test
+    void failureIsNotRetainedAfterFlightCompletes() {
+        assertThrows(IllegalStateException.class, () -> coalescer.execute(KEY, () -> {
+            throw new IllegalStateException("GoSolar down");
+        }));
+
+        RetrieveCourseInfoResponse ok = new RetrieveCourseInfoResponse();
+        assertSame(ok, coalescer.execute(KEY, () -> ok));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
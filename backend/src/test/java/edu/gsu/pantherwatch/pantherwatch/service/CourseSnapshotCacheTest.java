@@ -0,0 +1,153 @@
+package edu.gsu.pantherwatch.pantherwatch.service;
+
+import edu.gsu.pantherwatch.pantherwatch.api.CourseData;
+import edu.gsu.pantherwatch.pantherwatch.api.RetrieveCourseInfoRequest;
+import edu.gsu.pantherwatch.pantherwatch.api.RetrieveCourseInfoResponse;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Freshness, stale-while-revalidate and bounding. Pure unit test: no Spring, no network. */
+class CourseSnapshotCacheTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final CourseSnapshotCache cache =
+            new CourseSnapshotCache(Duration.ofSeconds(30), Duration.ofSeconds(60), 2, clock);
+
+    private static final CourseSearchKey CSC_1301 = CourseSearchKey.of(RetrieveCourseInfoRequest.builder()
+            .txtTerm("202608").txtSubject("CSC").txtCourseNumber("1301").pageMaxSize(200).build());
+
+    @Test
+    void servesFreshSnapshotWithoutCallingGoSolar() {
+        AtomicInteger calls = new AtomicInteger();
+        RetrieveCourseInfoResponse first = cache.get(CSC_1301, () -> success(calls.incrementAndGet()));
+        clock.advance(Duration.ofSeconds(29));
+        RetrieveCourseInfoResponse second = cache.get(CSC_1301, () -> success(calls.incrementAndGet()));
+
+        assertSame(first, second);
+        assertEquals(1, calls.get());
+        assertEquals(1L, cache.getStatus().get("hits"));
+        assertEquals(1L, cache.getStatus().get("misses"));
+    }
+
+    @Test
+    void servesStaleSnapshotWhileRefreshingInBackground() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        RetrieveCourseInfoResponse first = cache.get(CSC_1301, () -> success(calls.incrementAndGet()));
+        clock.advance(Duration.ofSeconds(45));
+
+        RetrieveCourseInfoResponse stale = cache.get(CSC_1301, () -> success(calls.incrementAndGet()));
+        assertSame(first, stale);
+
+        for (int i = 0; i < 100 && calls.get() < 2; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, calls.get());
+        assertEquals(1L, cache.getStatus().get("staleHits"));
+    }
+
+    @Test
+    void reloadsRatherThanServeASnapshotPastMaxAge() {
+        AtomicInteger calls = new AtomicInteger();
+        RetrieveCourseInfoResponse first = cache.get(CSC_1301, () -> success(calls.incrementAndGet()));
+        clock.advance(Duration.ofSeconds(45));
+
+        RetrieveCourseInfoResponse reloaded = cache.getReactive(CSC_1301, Duration.ofSeconds(30),
+                () -> Mono.fromSupplier(() -> success(calls.incrementAndGet()))).block();
+
+        assertNotSame(first, reloaded);
+        assertEquals(2, calls.get());
+        assertEquals(0L, cache.getStatus().get("staleHits"));
+        assertEquals(2L, cache.getStatus().get("misses"));
+    }
+
+    @Test
+    void reloadsOnceStaleWindowHasPassed() {
+        AtomicInteger calls = new AtomicInteger();
+        cache.get(CSC_1301, () -> success(calls.incrementAndGet()));
+        clock.advance(Duration.ofSeconds(91));
+
+        cache.get(CSC_1301, () -> success(calls.incrementAndGet()));
+
+        assertEquals(2, calls.get());
+        assertEquals(2L, cache.getStatus().get("misses"));
+    }
+
+    @Test
+    void neverCachesFailedSearches() {
+        AtomicInteger calls = new AtomicInteger();
+        RetrieveCourseInfoResponse failed = new RetrieveCourseInfoResponse();
+        failed.setSuccess(false);
+        failed.setData(new CourseData[0]);
+
+        cache.get(CSC_1301, () -> {
+            calls.incrementAndGet();
+            return failed;
+        });
+        cache.get(CSC_1301, () -> success(calls.incrementAndGet()));
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedKeyBeyondCapacity() {
+        for (String course : new String[] {"1301", "1302", "2720"}) {
+            CourseSearchKey key = CourseSearchKey.of(RetrieveCourseInfoRequest.builder()
+                    .txtTerm("202608").txtSubject("CSC").txtCourseNumber(course).build());
+            cache.get(key, () -> success(1));
+        }
+
+        assertEquals(2, cache.getStatus().get("entries"));
+        assertEquals(1L, cache.getStatus().get("evictions"));
+    }
+
+    @Test
+    void normalizesEquivalentRequestsToOneKey() {
+        CourseSearchKey messy = CourseSearchKey.of(RetrieveCourseInfoRequest.builder()
+                .txtTerm(" 202608").txtSubject("csc ").txtCourseNumber("1301").txtLevel("").pageMaxSize(200).build());
+        assertEquals(CSC_1301, messy);
+        assertTrue(messy.toString().startsWith("202608|CSC|1301"));
+    }
+
+    private static RetrieveCourseInfoResponse success(int totalCount) {
+        RetrieveCourseInfoResponse response = new RetrieveCourseInfoResponse();
+        response.setSuccess(true);
+        response.setTotalCount(totalCount);
+        response.setData(new CourseData[0]);
+        return response;
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2026-08-10T12:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package edu.gsu.pantherwatch.pantherwatch.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** Row-at-a-time CSV reading. Pure unit test. */
+class CsvRowReaderTest {
+
+    @Test
+    void handlesQuotesEscapesAndLineEndings() throws IOException {
+        List<List<String>> rows = readAll("CRN,Professor,Note\r\n"
+                + "80104,\"Bal, Abdullah\",\"said \"\"hi\"\"\"\r\n"
+                + "\n"
+                + "83015,\"Nemira,\nAlina\",\r"
+                + "91250,x,y");
+
+        assertEquals(List.of(
+                List.of("CRN", "Professor", "Note"),
+                List.of("80104", "Bal, Abdullah", "said \"hi\""),
+                List.of("83015", "Nemira,\nAlina", ""),
+                List.of("91250", "x", "y")), rows);
+    }
+
+    @Test
+    void emptyInputHasNoRows() throws IOException {
+        assertEquals(List.of(), readAll(""));
+        assertEquals(List.of(), readAll("\n\r\n"));
+    }
+
+    private static List<List<String>> readAll(String csv) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        try (CsvRowReader reader = new CsvRowReader(new StringReader(csv))) {
+            for (List<String> row = reader.next(); row != null; row = reader.next()) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,72 @@
+package edu.gsu.pantherwatch.pantherwatch.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** Windowed token accounting, priority reserves and log merging of the send quota. Pure unit test. */
+class EmailQuotaTest {
+
+    private static final long MINUTE = 60_000L;
+    private static final long HOUR = 60 * MINUTE;
+    private static final long T0 = 1_000_000 * MINUTE;
+
+    private final EmailQuota quota = new EmailQuota(100, 3000, 0, 0.1, 0.25);
+
+    @Test
+    void lowerPrioritiesStopAtTheirReserve() {
+        assertEquals(75, quota.tryAcquire(EmailQuota.Priority.ACCOUNT, 80, T0));
+        assertEquals(0, quota.tryAcquire(EmailQuota.Priority.ACCOUNT, 1, T0));
+        assertEquals(15, quota.tryAcquire(EmailQuota.Priority.ADMIN, 20, T0));
+        assertEquals(10, quota.tryAcquire(EmailQuota.Priority.AVAILABILITY, 20, T0));
+        assertEquals(0, quota.available(EmailQuota.Priority.AVAILABILITY, T0));
+        assertEquals(100, quota.dailyCount(T0));
+    }
+
+    @Test
+    void tokensComeBackAsSendsAgeOutOfTheDay() {
+        quota.tryAcquire(EmailQuota.Priority.AVAILABILITY, 60, T0);
+        quota.tryAcquire(EmailQuota.Priority.AVAILABILITY, 40, T0 + 2 * HOUR);
+
+        assertEquals(0, quota.available(EmailQuota.Priority.AVAILABILITY, T0 + 23 * HOUR));
+        assertEquals(Duration.ofHours(1), quota.retryAfter(EmailQuota.Priority.AVAILABILITY, T0 + 23 * HOUR));
+        assertEquals(60, quota.available(EmailQuota.Priority.AVAILABILITY, T0 + 24 * HOUR));
+        // Still counted against the month.
+        assertEquals(100, quota.monthlyCount(T0 + 24 * HOUR));
+    }
+
+    @Test
+    void monthlyLimitCapsEvenWithDailyHeadroom() {
+        EmailQuota small = new EmailQuota(100, 150, 0, 0, 0);
+        small.tryAcquire(EmailQuota.Priority.AVAILABILITY, 100, T0);
+
+        assertEquals(50, small.tryAcquire(EmailQuota.Priority.AVAILABILITY, 100, T0 + 25 * HOUR));
+        assertEquals(0, small.available(EmailQuota.Priority.AVAILABILITY, T0 + 26 * HOUR));
+    }
+
+    @Test
+    void releasedTokensCanBeSpentAgain() {
+        quota.tryAcquire(EmailQuota.Priority.AVAILABILITY, 100, T0);
+        quota.release(30, T0);
+
+        assertEquals(70, quota.dailyCount(T0 + MINUTE));
+        assertEquals(30, quota.available(EmailQuota.Priority.AVAILABILITY, T0 + MINUTE));
+    }
+
+    @Test
+    void mergingTheLogNeverDoubleCounts() {
+        quota.tryAcquire(EmailQuota.Priority.AVAILABILITY, 5, T0);
+        List<Long> logged = Collections.nCopies(8, T0);
+
+        quota.merge(logged, T0 + MINUTE);
+        quota.merge(logged, T0 + MINUTE);
+        quota.merge(List.of(T0 - 31 * 24 * HOUR), T0 + MINUTE);
+
+        assertEquals(8, quota.dailyCount(T0 + MINUTE));
+        assertEquals(8, quota.monthlyCount(T0 + MINUTE));
+    }
+}
@@ -0,0 +1,82 @@
+package edu.gsu.pantherwatch.pantherwatch.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-email cost of rendering the class-availability email: what EmailService
+ * used to do for every recipient (read HTML and CSS from the classpath, inline,
+ * String.format), String.format on a cached template, and the precompiled
+ * {@link EmailTemplate}.
+ *
+ * Not a unit test. Run after {@code mvn test-compile} with
+ * {@code java -cp target/test-classes:target/classes:<test classpath> \
+ * edu.gsu.pantherwatch.pantherwatch.service.EmailTemplateBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    private static final String HTML = "class-availability.html";
+    private static final String CSS = "class-availability.css";
+
+    private String inlinedSource;
+    private EmailTemplate compiled;
+
+    @Setup
+    public void setUp() throws IOException {
+        inlinedSource = loadAndInline();
+        compiled = EmailTemplate.compile("class-availability", inlinedSource);
+    }
+
+    @Benchmark
+    public String loadInlineAndFormat() throws IOException {
+        return String.format(loadAndInline(), values());
+    }
+
+    @Benchmark
+    public String formatCachedSource() {
+        return String.format(inlinedSource, values());
+    }
+
+    @Benchmark
+    public String renderCompiled() {
+        return compiled.render(values());
+    }
+
+    private static Object[] values() {
+        return new Object[] {"Ada", "Principles of Computer Science I", "CSC", "1301", "12345", "202608", "12345"};
+    }
+
+    /** The old per-email path of EmailService.loadEmailTemplateWithCSS. */
+    private static String loadAndInline() throws IOException {
+        String html = new ClassPathResource("templates/email/" + HTML).getContentAsString(StandardCharsets.UTF_8);
+        String css = new ClassPathResource("templates/email/" + CSS).getContentAsString(StandardCharsets.UTF_8)
+                .replace("%", "%%");
+        return html.replace("<link rel=\"stylesheet\" href=\"" + CSS + "\">", "<style>\n" + css + "\n    </style>");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EmailTemplateBenchmark.class.getSimpleName()).build()).run();
+    }
+}
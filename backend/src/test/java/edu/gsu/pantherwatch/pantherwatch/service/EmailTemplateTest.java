@@ -0,0 +1,47 @@
+package edu.gsu.pantherwatch.pantherwatch.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/** Precompiled templates must render exactly what String.format did. Pure unit test. */
+class EmailTemplateTest {
+
+    @Test
+    void rendersLikeStringFormat() {
+        String source = "<p>Hi %s,</p><p>%s is 100%% open (CRN %s).</p>";
+        EmailTemplate template = EmailTemplate.compile("test", source);
+
+        assertEquals(3, template.slots());
+        assertEquals(String.format(source, "Ada", "CSC 1301", "12345"), template.render("Ada", "CSC 1301", "12345"));
+        assertEquals(String.format(source, null, "", "%s"), template.render(null, "", "%s"));
+    }
+
+    @Test
+    void matchesStringFormatOnTheShippedTemplate() throws IOException {
+        String html = new ClassPathResource("templates/email/class-availability.html")
+                .getContentAsString(StandardCharsets.UTF_8);
+        EmailTemplate template = EmailTemplate.compile("class-availability", html);
+        Object[] values = {"Ada", "Principles of Computer Science I", "CSC", "1301", "12345", "202608", "12345"};
+
+        assertEquals(String.format(html, values), template.render(values));
+    }
+
+    @Test
+    void rejectsSpecifiersItCannotRender() {
+        assertThrows(IllegalArgumentException.class, () -> EmailTemplate.compile("bad", "width: 50%;"));
+        assertThrows(IllegalArgumentException.class, () -> EmailTemplate.compile("bad", "%d seats"));
+        assertThrows(IllegalArgumentException.class, () -> EmailTemplate.compile("bad", "trailing %"));
+    }
+
+    @Test
+    void rejectsWrongNumberOfValues() {
+        EmailTemplate template = EmailTemplate.compile("test", "%s and %s");
+        assertThrows(IllegalArgumentException.class, () -> template.render("one"));
+    }
+}
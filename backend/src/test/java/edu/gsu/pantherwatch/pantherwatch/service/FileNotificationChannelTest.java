@@ -0,0 +1,59 @@
+package edu.gsu.pantherwatch.pantherwatch.service;
+
+import edu.gsu.pantherwatch.pantherwatch.model.NotificationOutbox;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** The offline stand-in transport: JSON lines out, simulated failures. Pure unit test. */
+class FileNotificationChannelTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void appendsOneJsonLinePerNotification() throws Exception {
+        Path out = dir.resolve("notifications.jsonl");
+        FileNotificationChannel channel = new FileNotificationChannel(true, out.toString(), 0, 0, 1, 100, 3);
+
+        List<Exception> results = channel.deliver(List.of(row("k1", "12345"), row("k2", "54321")));
+
+        assertEquals(2, results.size());
+        assertNull(results.get(0));
+        assertNull(results.get(1));
+        List<String> lines = Files.readAllLines(out);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).contains("\"id\":\"k1\"") && lines.get(0).contains("\"crn\":\"12345\""));
+        assertTrue(lines.get(1).contains("\"crn\":\"54321\""));
+    }
+
+    @Test
+    void failsWholeBatchesAtTheConfiguredRate() {
+        FileNotificationChannel channel =
+                new FileNotificationChannel(true, dir.resolve("x.jsonl").toString(), 0, 1.0, 1, 100, 3);
+
+        List<Exception> results = channel.deliver(List.of(row("k1", "12345"), row("k2", "54321")));
+
+        assertNotNull(results.get(0));
+        assertNotNull(results.get(1));
+        assertTrue(Files.notExists(dir.resolve("x.jsonl")));
+    }
+
+    private static NotificationOutbox row(String key, String crn) {
+        return NotificationOutbox.builder()
+                .idempotencyKey(key)
+                .kind(NotificationOutbox.Kind.CLASS_AVAILABILITY)
+                .recipient("ada@student.gsu.edu")
+                .crn(crn)
+                .term("202608")
+                .build();
+    }
+}
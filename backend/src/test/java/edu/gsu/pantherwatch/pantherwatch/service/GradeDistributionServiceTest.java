@@ -1,13 +1,22 @@
 package edu.gsu.pantherwatch.pantherwatch.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.gsu.pantherwatch.pantherwatch.api.GradeDistributionResponse;
 import edu.gsu.pantherwatch.pantherwatch.model.SectionGrade;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /** CSV parsing + aggregation/matching. Pure unit test: no Spring, no network, no DB. */
@@ -69,6 +78,81 @@ class GradeDistributionServiceTest {
         assertFalse(resp.isInstructorHasTaught());
     }
 
+    @Test
+    void snapshotJsonMatchesSerializedResponse(@TempDir Path dir) throws IOException {
+        Path path = dir.resolve("202508" + GradeIndexFile.EXTENSION);
+        GradeIndexFile.write(path, "202508", service.parseTerm(SUMMARY_CSV, DETAILED_CSV, "202508"));
+        GradeIndexFile file = GradeIndexFile.open(path);
+        GradeSnapshot snapshot = service.buildSnapshot(GradeSnapshot.EMPTY, List.of(file), Set.copyOf(file.courseKeys()));
+        ObjectMapper mapper = new ObjectMapper();
+
+        assertEquals(1, snapshot.courseCount());
+        for (String instructor : Arrays.asList("Nemira, Alina (Alina) ", "Nonexistent, Person", null)) {
+            String key = instructor == null ? null : GradeDistributionService.normalizeName(instructor);
+            for (String course : List.of("4520", "9999")) {
+                GradeDistributionResponse resp = snapshot.response("CSC", course, instructor, key);
+                assertEquals(mapper.readTree(mapper.writeValueAsBytes(resp)),
+                        mapper.readTree(snapshot.json("CSC", course, instructor, key)));
+            }
+        }
+        assertTrue(snapshot.response("csc", "4520", "Nemira, Alina", "nemira|alina").isInstructorHasTaught());
+    }
+
+    @Test
+    void addingAndDroppingTermsOnlyReaggregatesTheirCourses(@TempDir Path dir) throws IOException {
+        String otherSummary = SUMMARY_CSV.replace("CSC 4520 ", "MATH 2211 ");
+        GradeIndexFile older = term(dir, "202501", SUMMARY_CSV, DETAILED_CSV);
+        GradeIndexFile newer = term(dir, "202508", SUMMARY_CSV, DETAILED_CSV);
+        GradeIndexFile math = term(dir, "202505", otherSummary, DETAILED_CSV);
+
+        GradeSnapshot before = service.buildSnapshot(GradeSnapshot.EMPTY, List.of(math, older),
+                Set.of("CSC|4520", "MATH|2211"));
+        // 202508 arrives and 202505 ages out of the window.
+        List<GradeIndexFile> window = List.of(newer, older);
+        GradeSnapshot after = service.buildSnapshot(before, window, Set.of("CSC|4520", "MATH|2211"));
+        GradeSnapshot full = service.buildSnapshot(GradeSnapshot.EMPTY, window, Set.of("CSC|4520"));
+
+        assertEquals(1, after.courseCount());
+        assertFalse(after.response("MATH", "2211", null, null).isHasData());
+        assertEquals(List.of("202508", "202501"), after.response("CSC", "4520", null, null).getTermsIncluded());
+        assertArrayEquals(full.json("CSC", "4520", "Nemira, Alina", "nemira|alina"),
+                after.json("CSC", "4520", "Nemira, Alina", "nemira|alina"));
+        // The old snapshot keeps serving until the new one is swapped in.
+        assertEquals(2, before.courseCount());
+    }
+
+    @Test
+    void readsGzippedAndLegacyPlainCsvsAlike(@TempDir Path dir) throws IOException {
+        Path plainSummary = Files.writeString(dir.resolve("202508__summary.csv"), SUMMARY_CSV);
+        Path plainDetailed = Files.writeString(dir.resolve("202508__detailed.csv"), DETAILED_CSV);
+        Path gzSummary = dir.resolve("202508__summary.csv" + GradeDistributionService.GZIP);
+        Path gzDetailed = dir.resolve("202508__detailed.csv" + GradeDistributionService.GZIP);
+        GradeDistributionService.compress(plainSummary, gzSummary);
+        GradeDistributionService.compress(plainDetailed, gzDetailed);
+
+        assertEquals(service.parseTerm(plainSummary, plainDetailed, "202508"),
+                service.parseTerm(gzSummary, gzDetailed, "202508"));
+        assertEquals(Files.getLastModifiedTime(plainSummary), Files.getLastModifiedTime(gzSummary));
+    }
+
+    @Test
+    void rejectsACorruptGzippedCsv(@TempDir Path dir) throws IOException {
+        Path plain = Files.writeString(dir.resolve("202508__summary.csv"), SUMMARY_CSV);
+        Path gz = dir.resolve("202508__summary.csv" + GradeDistributionService.GZIP);
+        GradeDistributionService.compress(plain, gz);
+        byte[] bytes = Files.readAllBytes(gz);
+        bytes[bytes.length - 8] ^= 0x01; // first byte of the CRC32 trailer
+        Files.write(gz, bytes);
+
+        assertThrows(IOException.class, () -> service.parseTerm(gz, gz, "202508"));
+    }
+
+    private GradeIndexFile term(Path dir, String term, String summary, String detailed) throws IOException {
+        Path path = dir.resolve(term + GradeIndexFile.EXTENSION);
+        GradeIndexFile.write(path, term, service.parseTerm(summary, detailed, term));
+        return GradeIndexFile.open(path);
+    }
+
     @Test
     void normalizesNamesAcrossSources() {
         assertEquals(
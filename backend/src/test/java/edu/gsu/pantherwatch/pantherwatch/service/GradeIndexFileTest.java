@@ -0,0 +1,82 @@
+package edu.gsu.pantherwatch.pantherwatch.service;
+
+import edu.gsu.pantherwatch.pantherwatch.model.SectionGrade;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Round trip through the binary per-term grade index. Pure unit test. */
+class GradeIndexFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsSectionsGroupedByCourse() throws IOException {
+        SectionGrade nemira = section("83015", "CSC", "4520", "Nemira, Alina", 2.85);
+        nemira.setAPlus(7);
+        nemira.setCMinus(2);
+        SectionGrade bal = section("80104", "CSC", "4520", "Bal, Abdullah", 3.31);
+        SectionGrade math = section("12345", "MATH", "2211", null, null);
+        Path path = dir.resolve("202508" + GradeIndexFile.EXTENSION);
+
+        GradeIndexFile.write(path, "202508", List.of(nemira, math, bal));
+        GradeIndexFile file = GradeIndexFile.open(path);
+
+        assertEquals("202508", file.term());
+        assertEquals(3, file.size());
+        List<SectionGrade> csc = file.sections("csc", "4520");
+        assertEquals(List.of(nemira, bal), csc);
+        assertEquals(7, csc.get(0).getAPlus());
+        SectionGrade loadedMath = file.sections("MATH", "2211").get(0);
+        assertNull(loadedMath.getProfessor());
+        assertNull(loadedMath.getGpa());
+        assertTrue(file.sections("CSC", "1301").isEmpty());
+    }
+
+    @Test
+    void emptyTermHasNoCourses() throws IOException {
+        Path path = dir.resolve("202601" + GradeIndexFile.EXTENSION);
+
+        GradeIndexFile.write(path, "202601", List.of());
+
+        assertEquals(0, GradeIndexFile.open(path).size());
+        assertTrue(GradeIndexFile.open(path).sections("CSC", "4520").isEmpty());
+    }
+
+    @Test
+    void rejectsTruncatedFiles() throws IOException {
+        Path path = dir.resolve("202508" + GradeIndexFile.EXTENSION);
+        GradeIndexFile.write(path, "202508", List.of(section("80104", "CSC", "4520", "Bal, Abdullah", 3.31)));
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 3));
+
+        assertThrows(IOException.class, () -> GradeIndexFile.open(path));
+    }
+
+    private static SectionGrade section(String crn, String subject, String number, String professor, Double gpa) {
+        return SectionGrade.builder()
+                .term("202508")
+                .crn(crn)
+                .subject(subject)
+                .courseNumber(number)
+                .section("")
+                .professor(professor)
+                .professorKey(professor == null ? null : GradeDistributionService.normalizeName(professor))
+                .instructionMethod("T")
+                .gradeA(21).gradeB(20).gradeC(15).gradeD(4).gradeF(2)
+                .wf(0).withdrawCount(1).otherCount(0).total(62)
+                .gpa(gpa)
+                .build();
+    }
+}
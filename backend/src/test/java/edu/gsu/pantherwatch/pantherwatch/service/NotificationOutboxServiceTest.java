@@ -0,0 +1,33 @@
+package edu.gsu.pantherwatch.pantherwatch.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/** Retry backoff and idempotency keys of the notification outbox. Pure unit test. */
+class NotificationOutboxServiceTest {
+
+    @Test
+    void backoffDoublesFromThirtySecondsUpToAnHour() {
+        assertEquals(Duration.ofSeconds(30), NotificationOutboxService.backoff(1));
+        assertEquals(Duration.ofSeconds(60), NotificationOutboxService.backoff(2));
+        assertEquals(Duration.ofMinutes(16), NotificationOutboxService.backoff(6));
+        assertEquals(Duration.ofHours(1), NotificationOutboxService.backoff(8));
+        assertEquals(Duration.ofHours(1), NotificationOutboxService.backoff(1000));
+    }
+
+    @Test
+    void keyIsStablePerWatchAndOpening() {
+        int opening = 3;
+        assertEquals(NotificationOutboxService.classAvailabilityKey(42L, opening),
+                NotificationOutboxService.classAvailabilityKey(42L, opening));
+        assertNotEquals(NotificationOutboxService.classAvailabilityKey(42L, opening),
+                NotificationOutboxService.classAvailabilityKey(43L, opening));
+        // Re-armed after the class filled up: the next opening is a new notification.
+        assertNotEquals(NotificationOutboxService.classAvailabilityKey(42L, opening),
+                NotificationOutboxService.classAvailabilityKey(42L, opening + 1));
+    }
+}
@@ -8,6 +8,8 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import org.junit.jupiter.api.Test;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -54,6 +56,98 @@ class PantherWatchServiceTest {
         }
     }
 
+    @Test
+    void pooledSessionIsReusedAcrossSearches() throws Exception {
+        AtomicInteger declarations = new AtomicInteger();
+        HttpServer server = startPinnedGoSolar(declarations, new AtomicReference<>("[]"));
+
+        try {
+            GoSolarSessionPool pool = newPool(server);
+            PantherWatchService service = new PantherWatchService(client(server), null, null, pool, null);
+
+            assertThat(service.searchCourses(csc("1301")).isSuccess()).isTrue();
+            awaitIdleSession(pool, "202608");
+            assertThat(service.searchCourses(csc("1302")).isSuccess()).isTrue();
+
+            assertThat(declarations.get()).isEqualTo(1);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void pooledSessionIsEvictedWhenGoSolarForgetsIt() throws Exception {
+        AtomicInteger declarations = new AtomicInteger();
+        AtomicReference<String> data = new AtomicReference<>("[]");
+        HttpServer server = startPinnedGoSolar(declarations, data);
+
+        try {
+            GoSolarSessionPool pool = newPool(server);
+            PantherWatchService service = new PantherWatchService(client(server), null, null, pool, null);
+            service.searchCourses(csc("1301"));
+            awaitIdleSession(pool, "202608");
+
+            // The node dropped the session: success:true,data:null on the pooled session.
+            data.set("null");
+            service.searchCourses(csc("1301"));
+
+            assertThat(pool.getStatus().get("evictedNoData")).isEqualTo(1L);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static RetrieveCourseInfoRequest csc(String courseNumber) {
+        return RetrieveCourseInfoRequest.builder()
+                .txtTerm("202608")
+                .txtSubject("CSC")
+                .txtCourseNumber(courseNumber)
+                .build();
+    }
+
+    private GoSolarSessionPool newPool(HttpServer server) {
+        return new GoSolarSessionPool("http://localhost:" + server.getAddress().getPort(),
+                true, 4, 0, 900, 240, 200);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void awaitIdleSession(GoSolarSessionPool pool, String term) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            Map<String, Map<String, Integer>> terms = (Map<String, Map<String, Integer>>) pool.getStatus().get("terms");
+            if (terms.containsKey(term) && terms.get(term).get("idle") > 0) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private HttpServer startPinnedGoSolar(AtomicInteger declarations, AtomicReference<String> data) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext("/term/search", exchange -> {
+            exchange.getRequestBody().close();
+            int n = declarations.incrementAndGet();
+            exchange.getResponseHeaders().add("Set-Cookie", "JSESSIONID=session-" + n + "; Path=/");
+            exchange.getResponseHeaders().add("Set-Cookie", "BIGipServerregistration.gosolar.gsu.edu=node-1; Path=/");
+            writeJson(exchange, "{\"success\":true}");
+        });
+        server.createContext("/searchResults/searchResults", exchange -> {
+            exchange.getRequestBody().close();
+            boolean pooled = exchange.getRequestHeaders().getFirst("Cookie").contains("session-1");
+            String body = pooled ? data.get() : "[]";
+            writeJson(exchange, "{\"success\":true,\"totalCount\":0,\"data\":" + body + ",\"pageOffset\":0,\"pageMaxSize\":10}");
+        });
+        server.createContext("/classSearch/resetDataForm", exchange -> {
+            exchange.getRequestBody().close();
+            writeJson(exchange, "true");
+        });
+        server.start();
+        return server;
+    }
+
+    private WebClient client(HttpServer server) {
+        return WebClient.builder().baseUrl("http://localhost:" + server.getAddress().getPort()).build();
+    }
+
     private PantherWatchService newService(HttpServer server) {
         String baseUrl = "http://localhost:" + server.getAddress().getPort();
         return new PantherWatchService(WebClient.builder().baseUrl(baseUrl).build());
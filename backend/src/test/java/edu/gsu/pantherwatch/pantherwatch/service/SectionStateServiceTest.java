@@ -0,0 +1,55 @@
+package edu.gsu.pantherwatch.pantherwatch.service;
+
+import edu.gsu.pantherwatch.pantherwatch.api.CourseData;
+import edu.gsu.pantherwatch.pantherwatch.model.SectionState;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** Change detection against stored section state. Pure unit test. */
+class SectionStateServiceTest {
+
+    private static final LocalDateTime SEEN = LocalDateTime.of(2026, 8, 10, 12, 0);
+
+    @Test
+    void onlyNewAndChangedSectionsAreReported() {
+        Map<String, SectionState> previous = Map.of(
+                "10001", state("10001", 0, 5, 30),
+                "10002", state("10002", 0, 5, 30),
+                "10003", state("10003", 0, 0, 30));
+
+        Set<String> changed = SectionStateService.changed(previous, List.of(
+                section("10001", 0, 5, 30),   // unchanged
+                section("10002", 0, 4, 30),   // waitlist moved
+                section("10003", 1, 0, 29),   // seat opened
+                section("10004", 0, 2, 30))); // never seen
+
+        assertEquals(Set.of("10002", "10003", "10004"), changed);
+    }
+
+    @Test
+    void enrollmentChangeAloneCounts() {
+        Set<String> changed = SectionStateService.changed(
+                Map.of("10001", state("10001", 0, 0, 30)),
+                List.of(section("10001", 0, 0, 31)));
+        assertEquals(Set.of("10001"), changed);
+    }
+
+    private static SectionState state(String crn, int seats, int waits, int enrollment) {
+        return new SectionState("202608", crn, seats, waits, enrollment, SEEN, SEEN);
+    }
+
+    private static CourseData section(String crn, int seats, int waits, int enrollment) {
+        CourseData data = new CourseData();
+        data.setCourseReferenceNumber(crn);
+        data.setSeatsAvailable(seats);
+        data.setWaitCount(waits);
+        data.setEnrollment(enrollment);
+        return data;
+    }
+}
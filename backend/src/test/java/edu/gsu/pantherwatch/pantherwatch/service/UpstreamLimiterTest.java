@@ -0,0 +1,153 @@
+package edu.gsu.pantherwatch.pantherwatch.service;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpstreamLimiterTest {
+
+    @Test
+    void neverRunsMoreThanTheLimitAtOnce() throws Exception {
+        UpstreamLimiter limiter = new UpstreamLimiter("test", 2, Duration.ofSeconds(5));
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?>[] calls = new Future<?>[20];
+            for (int i = 0; i < calls.length; i++) {
+                calls[i] = pool.submit(() -> limiter.call(() -> {
+                    peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(5);
+                    running.decrementAndGet();
+                    return null;
+                }));
+            }
+            for (Future<?> call : calls) {
+                call.get(5, TimeUnit.SECONDS);
+            }
+        }
+
+        assertEquals(2, peak.get());
+        assertEquals(0, limiter.getStatus().get("active"));
+        assertEquals(20L, limiter.getStatus().get("acquired"));
+    }
+
+    @Test
+    void queuedReactiveCallProceedsWhenAPermitIsReturned() {
+        UpstreamLimiter limiter = new UpstreamLimiter("test", 1, Duration.ofSeconds(5));
+        UpstreamLimiter.Permit held = limiter.acquire().join();
+
+        CompletableFuture<String> queued = limiter.limit(() -> Mono.just("ran")).toFuture();
+        assertFalse(queued.isDone());
+        assertEquals(1, limiter.getStatus().get("queued"));
+
+        held.close();
+        assertEquals("ran", queued.join());
+        assertEquals(0, limiter.getStatus().get("active"));
+    }
+
+    @Test
+    void waiterGivesUpAfterAcquireTimeout() {
+        UpstreamLimiter limiter = new UpstreamLimiter("test", 1, Duration.ofMillis(50));
+        UpstreamLimiter.Permit held = limiter.acquire().join();
+
+        Exception e = assertThrows(Exception.class, () -> limiter.acquire().get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, e.getCause());
+        assertEquals(1L, limiter.getStatus().get("rejected"));
+        assertEquals(0, limiter.getStatus().get("queued"));
+
+        held.close();
+        held.close();
+        assertEquals(0, limiter.getStatus().get("active"));
+        assertTrue(limiter.acquire().isDone());
+    }
+
+    @Test
+    void cancelledWaiterDoesNotLeakItsPermit() {
+        UpstreamLimiter limiter = new UpstreamLimiter("test", 1, Duration.ofSeconds(5));
+        UpstreamLimiter.Permit held = limiter.acquire().join();
+        CountDownLatch never = new CountDownLatch(1);
+
+        limiter.limit(() -> Mono.fromRunnable(never::countDown)).subscribe().dispose();
+        held.close();
+
+        assertEquals(0, limiter.getStatus().get("active"));
+        assertEquals(1L, never.getCount());
+    }
+
+    @Test
+    void shedsCallersOnceTheQueueIsFull() {
+        UpstreamLimiter limiter = new UpstreamLimiter("test", 1, 1, Duration.ofSeconds(5));
+        UpstreamLimiter.Permit held = limiter.acquire().join();
+        CompletableFuture<UpstreamLimiter.Permit> queued = limiter.acquire();
+
+        CompletableFuture<UpstreamLimiter.Permit> shed = limiter.acquire();
+        assertTrue(shed.isCompletedExceptionally());
+        CompletionException e = assertThrows(CompletionException.class, shed::join);
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        assertEquals(1L, limiter.getStatus().get("shed"));
+
+        held.close();
+        queued.join().close();
+        assertEquals(0, limiter.getStatus().get("active"));
+    }
+
+    @Test
+    void adaptiveLimitBacksOffOnErrorsOncePerWindow() {
+        UpstreamLimiter limiter = UpstreamLimiter.adaptive("test", 8, 2, 16, Duration.ofSeconds(10), 100,
+                Duration.ofSeconds(5));
+
+        for (int i = 0; i < 3; i++) {
+            limiter.limit(() -> Mono.error(new IllegalStateException("GoSolar timed out")))
+                    .onErrorResume(e -> Mono.empty())
+                    .block();
+        }
+
+        assertEquals(6, limiter.getLimit());
+        assertEquals(1L, limiter.getStatus().get("decreases"));
+        assertEquals(3L, limiter.getStatus().get("failures"));
+    }
+
+    @Test
+    void adaptiveLimitGrowsWhileBusyAndHealthy() {
+        UpstreamLimiter limiter = UpstreamLimiter.adaptive("test", 2, 1, 4, Duration.ofSeconds(10), 100,
+                Duration.ofSeconds(5));
+
+        UpstreamLimiter.Permit first = limiter.acquire().join();
+        UpstreamLimiter.Permit second = limiter.acquire().join();
+        first.close(false);
+        second.close(false);
+
+        assertEquals(3, limiter.getLimit());
+        assertEquals(1L, limiter.getStatus().get("increases"));
+    }
+
+    @Test
+    void adaptiveLimitDoesNotGrowWhileIdle() {
+        UpstreamLimiter limiter = UpstreamLimiter.adaptive("test", 4, 1, 8, Duration.ofSeconds(10), 100,
+                Duration.ofSeconds(5));
+
+        for (int i = 0; i < 20; i++) {
+            limiter.limit(() -> Mono.just("ok")).block();
+        }
+
+        assertEquals(4, limiter.getLimit());
+    }
+}
@@ -143,6 +143,31 @@ class AdminService {
       throw error
     }
   }
+
+  async sendBulkEmail(targetEmails, subject, message) {
+    try {
+      const headers = await this.getAuthHeaders()
+      const response = await fetch(`${this.baseUrl}/email/send-bulk`, {
+        method: 'POST',
+        headers,
+        credentials: 'include',
+        body: JSON.stringify({
+          targetEmails,
+          subject,
+          message
+        })
+      })
+
+      if (!response.ok && response.status !== 500) {
+        throw new Error(`HTTP error! status: ${response.status}`)
+      }
+
+      return await response.json()
+    } catch (error) {
+      console.error('Error sending bulk email:', error)
+      throw error
+    }
+  }
 }
 
 export const adminService = new AdminService()